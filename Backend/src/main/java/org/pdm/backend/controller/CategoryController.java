@@ -1,8 +1,11 @@
 package org.pdm.backend.controller;
 
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.pdm.backend.enums.CountMode;
 import org.pdm.backend.model.Category;
 import org.pdm.backend.service.CategoryService;
 import org.pdm.backend.wrappers.Response;
@@ -10,12 +13,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ResponseBodyCache responseBodyCache;
 
     @PostMapping("/add")
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -25,14 +33,19 @@ public class CategoryController {
 
 
     @GetMapping("/all")
-    public ResponseEntity<Response> getAllCategories(
+    @ConditionalGet("categories")
+    public void getAllCategories(
         @RequestParam(value = "page", defaultValue = "1") int page,
         @RequestParam(value = "limit", defaultValue = "10") int limit,
-        @RequestParam(value = "search", required = false) String search) {
-        return ResponseEntity.ok(categoryService.getAllCategories(page, limit, search));
+        @RequestParam(value = "search", required = false) String search,
+        @RequestParam(value = "count", defaultValue = "EXACT") CountMode count,
+        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseBodyCache.write("categories all", Arrays.asList(page, limit, search, count), List.of("categories"),
+                request, response, () -> categoryService.getAllCategories(page, limit, search, count));
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet("categories")
     public ResponseEntity<Response> getCategoryById(@PathVariable Long id) {
         return ResponseEntity.ok(categoryService.getCategoryById(id));
     }
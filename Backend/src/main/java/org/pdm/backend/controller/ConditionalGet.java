@@ -0,0 +1,20 @@
+package org.pdm.backend.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Gives a GET endpoint a strong ETag made of the versions of the tables it reads, and answers
+ * {@code If-None-Match} with 304 before the handler runs; see {@link ConditionalGetInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    /**
+     * Tables the response is built from; a committed write to any of them changes the ETag.
+     */
+    String[] value();
+}
@@ -0,0 +1,92 @@
+package org.pdm.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.repository.TableVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Enumeration;
+
+/**
+ * ETags for the endpoints marked {@link ConditionalGet}, built from the table versions the repositories
+ * bump after every committed write ({@link TableVersionRepository}), so checking one costs a few map
+ * lookups and a matching {@code If-None-Match} gets its 304 before any repository work or serialization.
+ * <p>
+ * The versions are read before the handler runs, so a write racing the request can only leave an ETag
+ * older than the body, which costs the client one more full response and never hides a change.
+ * Responses are marked {@code private, no-cache} so browsers keep them but revalidate every time.
+ * Writes made to MySQL outside this application do not change the ETags.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private final TableVersionRepository tableVersionRepository;
+
+    // versions start again from 0 with every process, so ETags handed out by an earlier run must not match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    @Value("${etag.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod) ||
+                !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        String etag = etagOf(conditionalGet.value());
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The ETag of the gzip-encoded body of a response tagged {@code etag}; a strong ETag has to differ
+     * between encodings of the same content.
+     */
+    static String gzipVariant(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    private String etagOf(String[] tables) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (String table : tables) {
+            etag.append('-').append(tableVersionRepository.version(table));
+        }
+        return etag.append('"').toString();
+    }
+
+    private static boolean matches(Enumeration<String> ifNoneMatch, String etag) {
+        String gzipEtag = gzipVariant(etag);
+        while (ifNoneMatch.hasMoreElements()) {
+            for (String candidate : ifNoneMatch.nextElement().split(",")) {
+                candidate = candidate.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2); // If-None-Match compares weakly
+                }
+                if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
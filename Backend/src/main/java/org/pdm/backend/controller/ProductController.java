@@ -1,5 +1,7 @@
 package org.pdm.backend.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.pdm.backend.model.Product;
 import org.pdm.backend.service.ProductService;
 import org.pdm.backend.wrappers.Response;
@@ -8,15 +10,20 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
     private final ProductService productService;
+    private final ResponseBodyCache responseBodyCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ResponseBodyCache responseBodyCache) {
         this.productService = productService;
+        this.responseBodyCache = responseBodyCache;
     }
 
     @PostMapping("/add")
@@ -69,11 +76,23 @@ public class ProductController {
 
 
     @GetMapping("/all")
-    public ResponseEntity<Response> getAllProducts(@RequestParam(value = "categoryId", required = false) Long categoryId) {
-        return ResponseEntity.ok(productService.getAllProducts(categoryId));
+    @ConditionalGet("products")
+    public void getAllProducts(@RequestParam(value = "categoryId", required = false) Long categoryId,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseBodyCache.write("products all", Collections.singletonList(categoryId), List.of("products"),
+                request, response, () -> productService.getAllProducts(categoryId));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Response> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet("products")
     public ResponseEntity<Response> getProductById(@PathVariable Long id) {
         return ResponseEntity.ok(productService.getProductById(id));
     }
@@ -85,8 +104,12 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Response> searchProduct(@RequestParam String input) {
-        return ResponseEntity.ok(productService.searchProducts(input));
+    public ResponseEntity<Response> searchProduct(
+            @RequestParam String input,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "1000") int size
+    ) {
+        return ResponseEntity.ok(productService.searchProducts(input, page, size));
     }
 
 
@@ -0,0 +1,170 @@
+package org.pdm.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.repository.TableVersionRepository;
+import org.pdm.backend.wrappers.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Already encoded JSON bodies of the hot list endpoints, written straight to the servlet output stream,
+ * so a repeat request skips the service, the entity lists and Jackson altogether.
+ * <p>
+ * Entries are keyed by endpoint and parameters and keep the versions of the tables they were built
+ * from ({@link TableVersionRepository}), taken before the service ran; the repositories bump those on
+ * every committed write, so a service write retires the bodies that show it. Bodies of at least
+ * {@code response-cache.gzip-min-bytes} are also kept gzip-compressed for clients that accept it.
+ * A cached body keeps the {@code timestamp} of the response it was encoded from.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseBodyCache {
+
+    private record Key(String endpoint, List<?> params) {
+    }
+
+    private record Entry(byte[] body, byte[] gzipBody, long[] versions, long expiresAtMillis) {
+    }
+
+    private record Meters(Counter hits, Counter misses) {
+    }
+
+    private final TableVersionRepository tableVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${response-cache.max-entries:200}")
+    private int maxEntries;
+
+    @Value("${response-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    // access-ordered, so the eldest entry is the least recently used one; guarded by itself
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Writes the cached body of {@code endpoint} with these parameters, or builds it with {@code producer},
+     * encodes it, writes it and keeps it while {@code tables} are unchanged. Exceptions of the producer
+     * are left to the exception handlers, nothing has been written by then.
+     */
+    public void write(String endpoint, List<?> params, List<String> tables,
+                      HttpServletRequest request, HttpServletResponse response,
+                      Supplier<Response> producer) throws IOException {
+        Entry entry = enabled ? lookup(endpoint, params, tables) : null;
+        if (entry == null) {
+            entry = encode(endpoint, params, tables, producer);
+        }
+
+        boolean gzip = entry.gzipBody() != null && acceptsGzip(request);
+        byte[] body = gzip ? entry.gzipBody() : entry.body();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (etag != null) {
+                response.setHeader(HttpHeaders.ETAG, ConditionalGetInterceptor.gzipVariant(etag));
+            }
+        }
+        response.setContentLength(body.length);
+        ServletOutputStream out = response.getOutputStream();
+        out.write(body);
+        out.flush();
+    }
+
+    private Entry lookup(String endpoint, List<?> params, List<String> tables) {
+        Key key = new Key(endpoint, params);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (Arrays.equals(entry.versions(), versionsOf(tables)) && entry.expiresAtMillis() > System.currentTimeMillis()) {
+            metersOf(endpoint).hits().increment();
+            return entry;
+        }
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+        return null;
+    }
+
+    private Entry encode(String endpoint, List<?> params, List<String> tables, Supplier<Response> producer) throws IOException {
+        long[] versions = versionsOf(tables);
+        byte[] body = objectMapper.writeValueAsBytes(producer.get());
+        byte[] gzipBody = body.length >= gzipMinBytes ? gzip(body) : null;
+        Entry entry = new Entry(body, gzipBody, versions, System.currentTimeMillis() + ttlSeconds * 1000L);
+        if (!enabled) {
+            return entry;
+        }
+        metersOf(endpoint).misses().increment();
+        // a body that raced a write may already be stale, so it is served once but not kept
+        if (Arrays.equals(versions, versionsOf(tables))) {
+            synchronized (entries) {
+                entries.put(new Key(endpoint, params), entry);
+            }
+        }
+        return entry;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private long[] versionsOf(List<String> tables) {
+        long[] versions = new long[tables.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = tableVersionRepository.version(tables.get(i));
+        }
+        return versions;
+    }
+
+    private Meters metersOf(String endpoint) {
+        return meters.computeIfAbsent(endpoint, name -> new Meters(
+                meterRegistry.counter("response.cache.requests", "endpoint", name, "result", "hit"),
+                meterRegistry.counter("response.cache.requests", "endpoint", name, "result", "miss")));
+    }
+}
@@ -0,0 +1,27 @@
+package org.pdm.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.service.SchemaService;
+import org.pdm.backend.wrappers.Response;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/schema")
+@RequiredArgsConstructor
+public class SchemaController {
+
+    private final SchemaService schemaService;
+
+    /**
+     * Applied and pending migrations, and the index each hot query uses according to EXPLAIN.
+     */
+    @GetMapping("/status")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getSchemaStatus() {
+        return ResponseEntity.ok(schemaService.getStatus());
+    }
+}
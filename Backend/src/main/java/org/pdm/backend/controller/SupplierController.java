@@ -1,5 +1,7 @@
 package org.pdm.backend.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid; 
 import lombok.RequiredArgsConstructor;
 import org.pdm.backend.model.Supplier; 
@@ -9,12 +11,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/suppliers")
 @RequiredArgsConstructor
 public class SupplierController {
 
     private final SupplierService supplierService;
+    private final ResponseBodyCache responseBodyCache;
 
     @PostMapping("/add")
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -24,11 +31,15 @@ public class SupplierController {
 
 
     @GetMapping("/all")
-    public ResponseEntity<Response> getAllSuppliers(@RequestParam(required = false) String input) {
-        return ResponseEntity.ok(supplierService.getAllSuppliers(input));
+    @ConditionalGet("suppliers")
+    public void getAllSuppliers(@RequestParam(required = false) String input,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseBodyCache.write("suppliers all", Collections.singletonList(input), List.of("suppliers"),
+                request, response, () -> supplierService.getAllSuppliers(input));
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet("suppliers")
     public ResponseEntity<Response> getSupplierById(@PathVariable Long id) {
         return ResponseEntity.ok(supplierService.getSupplierById(id));
     }
@@ -2,27 +2,47 @@ package org.pdm.backend.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.pdm.backend.enums.CountMode;
+import org.pdm.backend.enums.RollupGranularity;
 import org.pdm.backend.enums.TransactionStatus;
+import org.pdm.backend.enums.TransactionType;
+import org.pdm.backend.exception.NotFoundException;
+import org.pdm.backend.service.IngestionService;
 import org.pdm.backend.service.TransactionService;
+import org.pdm.backend.wrappers.BatchTransactionRequest;
 import org.pdm.backend.wrappers.Response;
+import org.pdm.backend.wrappers.TransactionFilter;
 import org.pdm.backend.wrappers.TransactionRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final Optional<IngestionService> ingestionService; // present when ingestion.async.enabled=true
 
 
     @PostMapping("/purchase")
     public ResponseEntity<Response> restockInventory(@RequestBody @Valid TransactionRequest transactionRequest) {
+        if (ingestionService.isPresent()) {
+            return ResponseEntity.accepted().body(ingestionService.get().enqueue(TransactionType.PURCHASE, transactionRequest));
+        }
         return ResponseEntity.ok(transactionService.restockInventory(transactionRequest));
     }
     @PostMapping("/sell")
     public ResponseEntity<Response> sell(@RequestBody @Valid TransactionRequest transactionRequest) {
+        if (ingestionService.isPresent()) {
+            return ResponseEntity.accepted().body(ingestionService.get().enqueue(TransactionType.SALE, transactionRequest));
+        }
         return ResponseEntity.ok(transactionService.sell(transactionRequest));
     }
     @PostMapping("/return")
@@ -30,16 +50,78 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.returnToSupplier(transactionRequest));
     }
 
+    /**
+     * Posts many lines in one call. Each line is accepted or rejected on its own, the accepted ones
+     * are written together; see {@code batchResults} in the response.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Response> postBatch(@RequestBody @Valid BatchTransactionRequest batchTransactionRequest) {
+        return ResponseEntity.ok(transactionService.postBatch(batchTransactionRequest));
+    }
+
+    /**
+     * Applied offset and lag of the async ingestion log.
+     */
+    @GetMapping("/ingestion/status")
+    public ResponseEntity<Response> getIngestionStatus() {
+        IngestionService service = ingestionService
+                .orElseThrow(() -> new NotFoundException("Async Ingestion Is Not Enabled"));
+        return ResponseEntity.ok(service.getStatus());
+    }
+
+    /**
+     * What became of a queued sell or purchase, by the {@code sequence} of its 202 response:
+     * PENDING, APPLIED, or REJECTED / FAILED with the reason.
+     */
+    @GetMapping("/ingestion/{sequence}")
+    public ResponseEntity<Response> getIngestionOutcome(@PathVariable long sequence) {
+        IngestionService service = ingestionService
+                .orElseThrow(() -> new NotFoundException("Async Ingestion Is Not Enabled"));
+        return ResponseEntity.ok(service.getOutcome(sequence));
+    }
+
+    /**
+     * Page/size mode by default. Passing {@code after} switches to cursor mode: {@code after=0}
+     * starts from the newest row, then send back the {@code nextCursor} of the previous response.
+     * {@code filter} is free text; the other parameters are exact matches, {@code from} inclusive
+     * and {@code to} exclusive on created_at, all combined with AND.
+     * {@code count=NONE} skips the total and only reports {@code hasNext}; {@code count=ESTIMATED}
+     * may answer an approximate total, flagged by {@code totalEstimated}.
+     */
     @GetMapping("/all")
+    @ConditionalGet({"transactions", "products"})
     public ResponseEntity<Response> getAllTransactions(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "1000") int size,
-            @RequestParam(required = false) String filter
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "EXACT") CountMode count,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long supplierId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
     ) {
-        return ResponseEntity.ok(transactionService.getAllTransactions(page, size, filter));
+        TransactionFilter transactionFilter = TransactionFilter.builder()
+                .text(filter)
+                .type(type)
+                .status(status)
+                .productId(productId)
+                .supplierId(supplierId)
+                .userId(userId)
+                .from(from)
+                .to(to)
+                .build();
+        if (after != null) {
+            return ResponseEntity.ok(transactionService.getTransactionsAfter(after, size, transactionFilter));
+        }
+        return ResponseEntity.ok(transactionService.getAllTransactions(page, size, transactionFilter, count));
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet({"transactions", "products", "suppliers", "users"})
     public ResponseEntity<Response> getTransactionById(@PathVariable Long id) {
         return ResponseEntity.ok(transactionService.getTransactionById(id));
     }
@@ -52,6 +134,33 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.getAllTransactionByMonthAndYear(month, year));
     }
 
+    @GetMapping("/daily-summary")
+    public ResponseEntity<Response> getDailySummary(
+            @RequestParam int month,
+            @RequestParam int year
+    ) {
+        return ResponseEntity.ok(transactionService.getDailySummary(month, year));
+    }
+
+    /**
+     * Pre-aggregated counts, units and value per product and type, {@code to} exclusive.
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<Response> getRollups(
+            @RequestParam RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long productId
+    ) {
+        return ResponseEntity.ok(transactionService.getRollups(granularity, from, to, productId));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> rebuildRollups() {
+        return ResponseEntity.ok(transactionService.rebuildRollups());
+    }
+
     @PutMapping("/{transactionId}")
     public ResponseEntity<Response> updateTransactionStatus(
             @PathVariable Long transactionId,
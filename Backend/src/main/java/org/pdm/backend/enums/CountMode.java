@@ -0,0 +1,10 @@
+package org.pdm.backend.enums;
+
+/**
+ * How a paged list works out its total.
+ */
+public enum CountMode {
+    EXACT,     // counted in the page query itself with COUNT(*) OVER(), or served from the count cache
+    ESTIMATED, // approximated from table statistics or a sample when the filter is broad, exact otherwise
+    NONE       // not counted; one extra row is read to tell whether a next page exists
+}
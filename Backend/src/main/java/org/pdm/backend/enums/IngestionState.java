@@ -0,0 +1,11 @@
+package org.pdm.backend.enums;
+
+/**
+ * What became of one entry of the async ingestion log.
+ */
+public enum IngestionState {
+    PENDING,  // durable in the log, not applied yet
+    APPLIED,  // posted to the ledger
+    REJECTED, // refused by validation, e.g. insufficient stock; see the message
+    FAILED    // could not be applied even on its own; dead-lettered with its payload, see the message
+}
@@ -0,0 +1,5 @@
+package org.pdm.backend.enums;
+
+public enum RollupGranularity {
+    DAY, WEEK, MONTH
+}
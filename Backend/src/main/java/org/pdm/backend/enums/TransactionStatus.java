@@ -1,5 +1,21 @@
 package org.pdm.backend.enums;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 public enum TransactionStatus {
-    PENDING, PROCESSING, COMPLETED, CANCELLED
+    PENDING, PROCESSING, COMPLETED, CANCELLED;
+
+    private static final Map<String, TransactionStatus> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Enum::name, Function.identity()));
+
+    /**
+     * Lookup for values read from the database.
+     * @return null for null or unknown names, instead of the exception {@code valueOf} throws
+     */
+    public static TransactionStatus fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
 }
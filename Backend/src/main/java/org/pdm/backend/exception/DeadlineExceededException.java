@@ -0,0 +1,7 @@
+package org.pdm.backend.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package org.pdm.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class DailyTransactionSummary {
+    private int day; // day of month, 1..31
+
+    private long count; // purchase and sale records created that day
+
+    private long quantity; // units moved in and out
+
+    private BigDecimal amount; // sales minus purchases
+}
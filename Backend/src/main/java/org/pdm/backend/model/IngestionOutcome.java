@@ -0,0 +1,27 @@
+package org.pdm.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.pdm.backend.enums.IngestionState;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class IngestionOutcome {
+    private long sequence; // as handed out by the 202 response
+
+    private IngestionState state;
+
+    private String message; // why it was rejected or failed
+
+    @JsonIgnore
+    private byte[] payload; // the raw log record, kept for FAILED entries only
+
+    private LocalDateTime recordedAt;
+}
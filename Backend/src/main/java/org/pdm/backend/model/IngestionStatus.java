@@ -0,0 +1,30 @@
+package org.pdm.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class IngestionStatus {
+    private long lastSequence; // last sequence handed out to a client
+
+    private long durableSequence; // everything up to here is fsynced
+
+    private long appliedSequence; // everything up to here is committed in MySQL
+
+    private long lag; // durable entries not applied yet
+
+    private long acceptedLines; // applied since startup
+
+    private long rejectedLines; // refused by validation since startup
+
+    private long failedLines; // dead-lettered since startup: failed even when applied on their own
+
+    private int segments; // log files on disk
+
+    private String lastError; // last failed apply attempt, cleared on success
+}
@@ -0,0 +1,20 @@
+package org.pdm.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class PagedResult<T> {
+    private List<T> items; // the requested page
+
+    private Long total; // matching rows over all pages, null when not counted
+
+    private boolean hasNext; // another page follows this one
+
+    private boolean estimated; // total is approximate (CountMode.ESTIMATED)
+}
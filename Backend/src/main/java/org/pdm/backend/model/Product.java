@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class Product {
 
 
@@ -35,12 +35,11 @@ public class Product {
 
     private String description;
 
-    private LocalDateTime expiryDate= LocalDateTime.now().plusMonths(12);
+    private LocalDateTime expiryDate;
 
     private String imageUrl;
 
-    @Builder.Default
-    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime createdAt;
     
     private Long categoryId;
 
@@ -0,0 +1,20 @@
+package org.pdm.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductSuggestion {
+    private Long id;
+
+    private String name;
+
+    private String sku;
+
+    private long salesVolume; // units sold in the ranking window
+}
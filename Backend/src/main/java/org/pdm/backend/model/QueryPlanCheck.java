@@ -0,0 +1,26 @@
+package org.pdm.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class QueryPlanCheck {
+    private String query; // which hot statement was explained
+
+    private String expectedKey; // index the statement was designed for
+
+    private String key; // index MySQL picked, null for none
+
+    private String accessType; // EXPLAIN type: const, ref, range, index, ALL...
+
+    private long estimatedRows;
+
+    private boolean ok; // false on a full scan or when another index was picked
+
+    private String warning;
+}
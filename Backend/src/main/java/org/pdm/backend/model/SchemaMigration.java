@@ -0,0 +1,24 @@
+package org.pdm.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class SchemaMigration {
+    private int version; // V<version>__<description>.sql
+
+    private String description;
+
+    private long checksum; // CRC32 of the script when it was applied
+
+    private LocalDateTime appliedAt; // null while pending
+
+    private long executionMillis;
+}
@@ -16,7 +16,7 @@ import java.util.Optional;
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class Transaction {
     private Long id;
 
@@ -33,7 +33,7 @@ public class Transaction {
     private String description;
     private String note;
 
-    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime createdAt;
 
     private LocalDateTime updateAt;
 
@@ -0,0 +1,31 @@
+package org.pdm.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.pdm.backend.enums.RollupGranularity;
+import org.pdm.backend.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class TransactionRollup {
+    private RollupGranularity granularity;
+
+    private LocalDate bucketStart; // first day of the day / ISO week (Monday) / month
+
+    private Long productId;
+
+    private TransactionType transactionType;
+
+    private long transactionCount;
+
+    private long units;
+
+    private BigDecimal totalValue;
+}
@@ -1,6 +1,8 @@
 package org.pdm.backend.repository;
 
+import org.pdm.backend.enums.CountMode;
 import org.pdm.backend.model.Category;
+import org.pdm.backend.model.PagedResult;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +12,6 @@ public interface CategoryRepository {
     List<Category> findAll();
     void deleteById(Long id);
     Category findByName(String name);
-    List<Category> findAllFilteredPaged(String filter, int page, int size);
+    PagedResult<Category> findAllFilteredPaged(String filter, int page, int size, CountMode countMode);
     long countFiltered(String filter);
 }
\ No newline at end of file
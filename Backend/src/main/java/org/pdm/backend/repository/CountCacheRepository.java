@@ -0,0 +1,26 @@
+package org.pdm.backend.repository;
+
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CountCacheRepository {
+
+    record CachedCount(long count, boolean estimated) {
+    }
+
+    /**
+     * @return null when nothing is cached for this filter since the last write to the table
+     * @see TableVersionRepository
+     */
+    CachedCount find(String table, String filterKey);
+
+    /**
+     * @param version the table version read before counting
+     */
+    void store(String table, String filterKey, long version, long count, boolean estimated);
+
+    /**
+     * Row count from InnoDB's statistics, without scanning.
+     */
+    long estimateRows(String table);
+}
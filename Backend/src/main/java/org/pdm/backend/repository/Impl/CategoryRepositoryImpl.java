@@ -1,8 +1,14 @@
 package org.pdm.backend.repository.Impl;
 
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.enums.CountMode;
 import org.pdm.backend.model.Category;
+import org.pdm.backend.model.PagedResult;
 import org.pdm.backend.repository.CategoryRepository;
-import org.pdm.backend.security.DatabaseConfig;
+import org.pdm.backend.repository.CountCacheRepository;
+import org.pdm.backend.repository.TableVersionRepository;
+import org.pdm.backend.repository.CountCacheRepository.CachedCount;
+import org.pdm.backend.repository.QueryCacheRepository;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
@@ -11,18 +17,28 @@ import org.springframework.jdbc.support.KeyHolder;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Repository
+@RequiredArgsConstructor
 public class CategoryRepositoryImpl implements CategoryRepository {
 
-    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(DatabaseConfig.getDataSource());
+    private final JdbcTemplate jdbcTemplate;
+    private final CountCacheRepository countCacheRepository;
+    private final TableVersionRepository tableVersionRepository;
+    private final QueryCacheRepository queryCacheRepository;
+
+    private static final String TABLE = "categories";
+    static final String FIND_BY_NAME_SQL = "SELECT id, name FROM categories WHERE name = ?"; // also plan-checked
 
     private final RowMapper<Category> mapRowToCategories = (rs, rowNum) -> {
         Category category = new Category();
-        category.setId(rs.getLong("id"));
-        category.setName(rs.getString("name"));
+        category.setId(rs.getLong(1));
+        category.setName(rs.getString(2));
         return category;
     };
 
@@ -40,10 +56,12 @@ public class CategoryRepositoryImpl implements CategoryRepository {
             if (key != null) {
                 category.setId(key.longValue());
             }
+            tableVersionRepository.bump(TABLE);
             return category;
         } else {
             String sql = "UPDATE categories SET name = ? WHERE id = ?";
             jdbcTemplate.update(sql, category.getName(), category.getId());
+            tableVersionRepository.bump(TABLE);
             return category;
         }
     }
@@ -61,35 +79,91 @@ public class CategoryRepositoryImpl implements CategoryRepository {
     @Override
     public List<Category> findAll() {
         String sql = "SELECT id, name FROM categories";
-        return jdbcTemplate.query(sql, mapRowToCategories);
+        return queryCacheRepository.read(TABLE, List.of(TABLE), sql, List.of(),
+                () -> jdbcTemplate.query(sql, mapRowToCategories), QueryCacheRepositoryImpl.eachCopied(CategoryRepositoryImpl::copyOf));
     }
 
     @Override
     public void deleteById(Long id) {
         String sql = "DELETE FROM categories WHERE id = ?";
         jdbcTemplate.update(sql, id);
+        tableVersionRepository.bump(TABLE);
+        tableVersionRepository.bump("products"); // cascades to its products
+        tableVersionRepository.bump("transactions"); // and their transactions
     }
 
     @Override
     public Category findByName(String name) {
-        String sql = "SELECT id, name FROM categories WHERE name = ?";
+        String sql = FIND_BY_NAME_SQL;
         List<Category> results = jdbcTemplate.query(sql, mapRowToCategories, name);
         return results.isEmpty() ? null : results.get(0);
     }
 
+    /**
+     * One page (1-based) with its total from the same statement ({@code COUNT(*) OVER()}),
+     * or from the count cache once the filter has been counted. {@link CountMode#ESTIMATED}
+     * uses InnoDB's row estimate when unfiltered; {@link CountMode#NONE} only reports a next page.
+     */
     @Override
-    public List<Category> findAllFilteredPaged(String filter, int page, int size) {
+    public PagedResult<Category> findAllFilteredPaged(String filter, int page, int size, CountMode countMode) {
+        return queryCacheRepository.read(TABLE, List.of(TABLE), "categories page", Arrays.asList(filter, page, size, countMode),
+                () -> loadPage(filter, page, size, countMode), QueryCacheRepositoryImpl.pageCopied(CategoryRepositoryImpl::copyOf));
+    }
+
+    private static Category copyOf(Category category) {
+        return category.toBuilder()
+                .productIDs(category.getProductIDs() == null ? null : new ArrayList<>(category.getProductIDs()))
+                .build();
+    }
+
+    private PagedResult<Category> loadPage(String filter, int page, int size, CountMode countMode) {
         boolean noFilter = (filter == null || filter.isBlank());
-        String sql;
+        String key = noFilter ? "" : filter.toLowerCase(Locale.ROOT);
+        long version = tableVersionRepository.version(TABLE);
+        CachedCount cached = countMode == CountMode.NONE ? null : countCacheRepository.find(TABLE, key);
+        if (cached != null && cached.estimated() && countMode == CountMode.EXACT) {
+            cached = null;
+        }
+        boolean exact = countMode == CountMode.EXACT && cached == null;
+        String sql = "SELECT id, name" + (exact ? ", COUNT(*) OVER() AS total_rows" : "") + " FROM categories" +
+                (noFilter ? "" : " WHERE name LIKE ?") + " ORDER BY id DESC LIMIT ? OFFSET ?";
+        List<Object> args = new ArrayList<>();
+        if (!noFilter) {
+            args.add("%" + filter + "%");
+        }
+        args.add(exact ? size : size + 1);
+        args.add((page - 1) * size);
 
-        if (noFilter) {
-            sql = "SELECT id, name FROM categories ORDER BY id DESC LIMIT ? OFFSET ?";
-            return jdbcTemplate.query(sql, mapRowToCategories, size, (page - 1) * size);
-        } else {
-            sql = "SELECT id, name FROM categories WHERE name LIKE ? ORDER BY id DESC LIMIT ? OFFSET ?";
-            String pattern = "%" + filter + "%";
-            return jdbcTemplate.query(sql, mapRowToCategories, pattern, size, (page - 1) * size);
+        long[] total = {0};
+        List<Category> categories = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            if (exact) {
+                total[0] = rs.getLong(3);
+            }
+            return mapRowToCategories.mapRow(rs, rowNum);
+        }, args.toArray());
+
+        if (exact) {
+            // past the last page there is no row to carry the total
+            if (categories.isEmpty() && page > 1) {
+                total[0] = countFiltered(filter);
+            }
+            countCacheRepository.store(TABLE, key, version, total[0], false);
+            return new PagedResult<>(categories, total[0], (long) page * size < total[0], false);
+        }
+
+        boolean hasNext = categories.size() > size;
+        if (hasNext) {
+            categories = new ArrayList<>(categories.subList(0, size));
+        }
+        if (cached == null && countMode == CountMode.ESTIMATED) {
+            cached = noFilter
+                    ? new CachedCount(countCacheRepository.estimateRows(TABLE), true)
+                    : new CachedCount(countFiltered(filter), false); // categories are few, count them
+            countCacheRepository.store(TABLE, key, version, cached.count(), cached.estimated());
         }
+        return cached == null
+                ? new PagedResult<>(categories, null, hasNext, false)
+                : new PagedResult<>(categories, cached.count(), hasNext, cached.estimated());
     }
 
     @Override
@@ -0,0 +1,94 @@
+package org.pdm.backend.repository.Impl;
+
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.repository.CountCacheRepository;
+import org.pdm.backend.repository.TableVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Totals of list filters, so paging through a result does not count it again on every page.
+ * <p>
+ * Each table has a version that the repositories bump after every committed write
+ * ({@link TableVersionRepository}). A count is stored with the version read before it was
+ * computed and only served while the version is unchanged, so a count racing a write is never kept. Entries also expire after
+ * {@code counts.cache.ttl-seconds} to bound the staleness of writes made outside the repositories.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CountCacheRepositoryImpl implements CountCacheRepository {
+
+    // table names are spliced into EXPLAIN, so only these are accepted
+    private static final Set<String> TABLES = Set.of("transactions", "categories");
+
+    private record Entry(long count, boolean estimated, long version, long expiresAtMillis) {
+    }
+
+    private final DataSource dataSource;
+    private final TableVersionRepository tableVersionRepository;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${counts.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${counts.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Override
+    public CachedCount find(String table, String filterKey) {
+        String key = table + '\u0000' + filterKey;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version() != tableVersionRepository.version(table) || entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return new CachedCount(entry.count(), entry.estimated());
+    }
+
+    @Override
+    public void store(String table, String filterKey, long version, long count, boolean estimated) {
+        if (version != tableVersionRepository.version(table)) {
+            return; // a write committed while counting
+        }
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear(); // still full of live entries: start over rather than grow
+            }
+        }
+        entries.put(table + '\u0000' + filterKey, new Entry(count, estimated, version, now + ttlSeconds * 1000L));
+    }
+
+    /**
+     * The {@code rows} estimate of a full scan from EXPLAIN, which InnoDB keeps current as rows
+     * change (information_schema.TABLES.TABLE_ROWS may be cached for a day).
+     */
+    @Override
+    public long estimateRows(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("No row estimate for table: " + table);
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("EXPLAIN SELECT id FROM " + table);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong("rows") : 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+}
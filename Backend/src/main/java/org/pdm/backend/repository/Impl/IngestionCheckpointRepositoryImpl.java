@@ -0,0 +1,57 @@
+package org.pdm.backend.repository.Impl;
+
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.repository.IngestionCheckpointRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Repository
+@RequiredArgsConstructor
+public class IngestionCheckpointRepositoryImpl implements IngestionCheckpointRepository {
+
+    private final DataSource dataSource;
+
+    // a single row; the log has one applier
+    private static final int CHECKPOINT_ID = 1;
+
+    @Override
+    public long findAppliedSequence() {
+        String sql = "SELECT applied_sequence FROM ingestion_checkpoint WHERE id = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, CHECKPOINT_ID);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong("applied_sequence") : 0L;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Must run in the same transaction as the rows it covers, so an entry is either
+     * applied and checkpointed or neither, and a replay never posts it twice.
+     */
+    @Override
+    @Transactional
+    public void saveAppliedSequence(long sequence) {
+        String sql = "INSERT INTO ingestion_checkpoint (id, applied_sequence, updated_at) VALUES (?, ?, NOW()) " +
+                "ON DUPLICATE KEY UPDATE applied_sequence = VALUES(applied_sequence), updated_at = VALUES(updated_at)";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, CHECKPOINT_ID);
+            ps.setLong(2, sequence);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+}
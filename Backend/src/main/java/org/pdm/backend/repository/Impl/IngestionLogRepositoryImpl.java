@@ -0,0 +1,346 @@
+package org.pdm.backend.repository.Impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.pdm.backend.repository.IngestionLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of memory-mapped segment files.
+ * <p>
+ * Record layout: payload length (int), CRC32 of the payload (int), sequence (long), payload.
+ * The length is written last, so a record torn by a crash reads as the end of the segment.
+ * {@link #append} returns only once the record is fsynced; concurrent appenders share one
+ * {@code force()} (group commit): whoever finds no flush running flushes everything written so far,
+ * the others wait for it.
+ */
+@Repository
+@Slf4j
+@ConditionalOnProperty(name = "ingestion.async.enabled", havingValue = "true")
+public class IngestionLogRepositoryImpl implements IngestionLogRepository {
+
+    private static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    @Value("${ingestion.wal.directory:./data/ingestion-wal}")
+    private String directory;
+
+    @Value("${ingestion.wal.segment-bytes:16777216}")
+    private int segmentBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+
+    // oldest first, the last one is written to
+    private final List<Segment> segments = new ArrayList<>();
+    private long lastSequence;
+    private long durableSequence;
+    private boolean flushing;
+
+    // read cursor of the applier, re-positioned when asked for anything else
+    private Segment readSegment;
+    private int readPosition;
+    private long readSequence = -1;
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private long lastSequence;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Maps the existing segments and recovers the last complete record.
+     * @param sequenceFloor sequence already applied elsewhere; new records are numbered above it
+     *                      even if the files were lost
+     */
+    @Override
+    public void open(long sequenceFloor) {
+        lock.lock();
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            List<Path> paths = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                stream.forEach(paths::add);
+            }
+            paths.sort(null); // zero-padded names sort in sequence order
+
+            for (Path path : paths) {
+                Segment segment = map(path);
+                recover(segment);
+                segments.add(segment);
+            }
+            lastSequence = Math.max(lastSequence, sequenceFloor);
+            durableSequence = lastSequence;
+            if (segments.isEmpty()) {
+                segments.add(map(segmentPath(lastSequence + 1)));
+            }
+            log.info("Opened ingestion log in {}: {} segments, last sequence {}", dir.toAbsolutePath(),
+                    segments.size(), lastSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long append(byte[] payload) {
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentBytes)
+            throw new IllegalArgumentException("Log entry of " + payload.length + " bytes does not fit a segment");
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            Segment active = segments.get(segments.size() - 1);
+            if (active.writePosition + size > segmentBytes) {
+                active.buffer.force(); // sealed segments are always durable
+                active = map(segmentPath(lastSequence + 1));
+                segments.add(active);
+            }
+
+            long sequence = ++lastSequence;
+            int position = active.writePosition;
+            active.buffer.putInt(position + 4, (int) crc.getValue());
+            active.buffer.putLong(position + 8, sequence);
+            active.buffer.put(position + HEADER_BYTES, payload);
+            active.buffer.putInt(position, payload.length);
+            active.writePosition = position + size;
+            active.lastSequence = sequence;
+
+            awaitDurable(sequence);
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called with the lock held; releases it while flushing
+    private void awaitDurable(long sequence) {
+        while (durableSequence < sequence) {
+            if (flushing) {
+                flushed.awaitUninterruptibly();
+                continue;
+            }
+            flushing = true;
+            long target = lastSequence;
+            Segment active = segments.get(segments.size() - 1);
+            boolean forced = false;
+            lock.unlock();
+            try {
+                active.buffer.force();
+                forced = true;
+            } finally {
+                lock.lock();
+                flushing = false;
+                if (forced)
+                    durableSequence = Math.max(durableSequence, target);
+                flushed.signalAll();
+            }
+        }
+    }
+
+    /**
+     * Durable records with a sequence above {@code sequence}, oldest first.
+     */
+    @Override
+    public List<LoggedEntry> readAfter(long sequence, int max) {
+        lock.lock();
+        try {
+            if (readSequence != sequence || !segments.contains(readSegment)) {
+                seek(sequence);
+            }
+            List<LoggedEntry> entries = new ArrayList<>(Math.min(max, 64));
+            while (entries.size() < max) {
+                if (readPosition >= readSegment.writePosition) {
+                    int next = segments.indexOf(readSegment) + 1;
+                    if (next >= segments.size())
+                        break;
+                    readSegment = segments.get(next);
+                    readPosition = 0;
+                    continue;
+                }
+                MappedByteBuffer buffer = readSegment.buffer;
+                int length = buffer.getInt(readPosition);
+                long recordSequence = buffer.getLong(readPosition + 8);
+                if (recordSequence > durableSequence)
+                    break;
+                byte[] payload = new byte[length];
+                buffer.get(readPosition + HEADER_BYTES, payload);
+                entries.add(new LoggedEntry(recordSequence, payload));
+                readPosition += HEADER_BYTES + length;
+                readSequence = recordSequence;
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // position the cursor on the first record above sequence
+    private void seek(long sequence) {
+        readSegment = segments.get(0);
+        readPosition = 0;
+        readSequence = sequence;
+        for (Segment segment : segments) {
+            readSegment = segment;
+            readPosition = 0;
+            if (segment.lastSequence > sequence)
+                break;
+            readPosition = segment.writePosition;
+        }
+        while (readPosition < readSegment.writePosition
+                && readSegment.buffer.getLong(readPosition + 8) <= sequence) {
+            readPosition += HEADER_BYTES + readSegment.buffer.getInt(readPosition);
+        }
+    }
+
+    /**
+     * Deletes sealed segments whose records are all at or below {@code sequence}.
+     */
+    @Override
+    public void truncateThrough(long sequence) {
+        lock.lock();
+        try {
+            Iterator<Segment> iterator = segments.iterator();
+            while (iterator.hasNext()) {
+                Segment segment = iterator.next();
+                if (segment == segments.get(segments.size() - 1) || segment.lastSequence > sequence)
+                    break;
+                iterator.remove();
+                close(segment);
+                Files.deleteIfExists(segment.path); // the mapping itself goes away with the buffer
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete applied ingestion log segment: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long durableSequence() {
+        lock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                close(segment);
+            }
+            segments.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return Paths.get(directory, String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private Segment map(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+    }
+
+    // walk the records until the first empty, torn or out-of-order one
+    private void recover(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentBytes)
+                break;
+            long sequence = buffer.getLong(position + 8);
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4) || sequence <= lastSequence)
+                break;
+            lastSequence = sequence;
+            segment.lastSequence = sequence;
+            position += HEADER_BYTES + length;
+        }
+        segment.writePosition = position;
+
+        // clear a torn tail so it is not mistaken for records once new ones are appended after it
+        if (position + HEADER_BYTES <= segmentBytes
+                && (buffer.getLong(position) != 0 || buffer.getLong(position + 8) != 0)) {
+            log.warn("Discarding torn ingestion log tail in {} at offset {}", segment.path, position);
+            for (int i = position; i < segmentBytes; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+    }
+
+    private void close(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close ingestion log segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.pdm.backend.repository.Impl;
+
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.enums.IngestionState;
+import org.pdm.backend.model.IngestionOutcome;
+import org.pdm.backend.repository.IngestionOutcomeRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class IngestionOutcomeRepositoryImpl implements IngestionOutcomeRepository {
+
+    private final DataSource dataSource;
+
+    private static final int MESSAGE_LENGTH = 500;
+
+    /**
+     * Runs in the applier's transaction, so an outcome is recorded exactly when its entry is checkpointed.
+     * Written with REPLACE: a replay after a crash between commit and truncation writes the same row again.
+     */
+    @Override
+    @Transactional
+    public void saveAll(List<IngestionOutcome> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        String sql = "REPLACE INTO ingestion_outcomes (sequence, state, message, payload, recorded_at) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (IngestionOutcome outcome : outcomes) {
+                String message = outcome.getMessage();
+                ps.setLong(1, outcome.getSequence());
+                ps.setString(2, outcome.getState().name());
+                ps.setString(3, message != null && message.length() > MESSAGE_LENGTH ? message.substring(0, MESSAGE_LENGTH) : message);
+                ps.setBytes(4, outcome.getPayload());
+                ps.setTimestamp(5, Timestamp.valueOf(outcome.getRecordedAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Optional<IngestionOutcome> findBySequence(long sequence) {
+        String sql = "SELECT sequence, state, message, payload, recorded_at FROM ingestion_outcomes WHERE sequence = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, sequence);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(IngestionOutcome.builder()
+                            .sequence(rs.getLong(1))
+                            .state(IngestionState.valueOf(rs.getString(2)))
+                            .message(rs.getString(3))
+                            .payload(rs.getBytes(4))
+                            .recordedAt(rs.getObject(5, LocalDateTime.class))
+                            .build());
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,125 @@
+package org.pdm.backend.repository.Impl;
+
+/**
+ * Open-addressing map from a positive {@code long} key to an {@code int}, with linear probing and
+ * backward-shift deletion. Two flat arrays and no boxing, so a million entries cost about 17 MB.
+ * Not thread-safe; callers lock around it.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = 0L; // database ids start at 1
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / 0.7f)) * 2 - 1);
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the value, or -1 when the key is absent
+     */
+    int get(long key) {
+        if (key <= 0)
+            return MISSING; // 0 marks an empty slot, it must not match one
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key)
+                return values[i];
+            if (current == EMPTY)
+                return MISSING;
+        }
+    }
+
+    void put(long key, int value) {
+        if (key <= 0)
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        int i = index(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size >= resizeAt)
+            rehash(keys.length * 2);
+    }
+
+    /**
+     * @return the removed value, or -1 when the key was absent
+     */
+    int remove(long key) {
+        if (key <= 0)
+            return MISSING;
+        int i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY)
+                return MISSING;
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        size--;
+
+        // shift later entries of the same probe run back so lookups never stop at a hole
+        int hole = i;
+        for (int j = (hole + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+        return removed;
+    }
+
+    /**
+     * @return all values, in no particular order
+     */
+    int[] values() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY)
+                result[n++] = values[i];
+        }
+        return result;
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.7f);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY)
+                put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -2,60 +2,86 @@ package org.pdm.backend.repository.Impl;
 
 import java.util.List;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
-import org.pdm.backend.security.DatabaseConfig;
-
+import javax.sql.DataSource;
 
+import lombok.RequiredArgsConstructor;
 import org.pdm.backend.model.Product;
 import org.pdm.backend.repository.ProductRepository;
+import org.pdm.backend.repository.QueryCacheRepository;
+import org.pdm.backend.repository.TableVersionRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
+@RequiredArgsConstructor
 public class ProductRepositoryImpl implements ProductRepository {
 
+    private final DataSource dataSource;
+    private final TableVersionRepository tableVersionRepository;
+    private final QueryCacheRepository queryCacheRepository;
+
+    private static final String TABLE = "products";
+
+    // every column, in the order mapRowToProduct reads them
+    static final String COLUMNS = "id, name, sku, price, stock_quantity, description, image_url, category_id, expiry_date, created_at";
+    // what a transaction list shows of its product, read by mapRowToProductSummary
+    static final String SUMMARY_COLUMNS = "id, name, sku, price, stock_quantity";
+    static final String FIND_BY_CATEGORY_SQL = "SELECT " + COLUMNS + " FROM products WHERE category_id = ?"; // also plan-checked
+
     @Override
     public Product save(Product productToSave) {
         String sql = "INSERT INTO products (name, sku, price, stock_quantity, description, expiry_date, image_url, category_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, productToSave.getName());
             ps.setString(2, productToSave.getSku());
             ps.setBigDecimal(3, productToSave.getPrice());
             ps.setInt(4, productToSave.getStockQuantity());
             ps.setString(5, productToSave.getDescription());
-            ps.setTimestamp(6, Timestamp.valueOf(productToSave.getExpiryDate()));
+            setTimestamp(ps, 6, productToSave.getExpiryDate());
             ps.setString(7, productToSave.getImageUrl());
             ps.setLong(8, productToSave.getCategoryId());
-            ps.setTimestamp(9, Timestamp.valueOf(productToSave.getCreatedAt()));
+            setTimestamp(ps, 9, productToSave.getCreatedAt());
             ps.executeUpdate();
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) {
                 productToSave.setId(rs.getLong(1));
             }
+            tableVersionRepository.bump(TABLE);
             return productToSave;
         } catch (SQLException e) {
             e.printStackTrace();
+        }
+        return null;
     }
-    return null;
-}
 
     @Override
     public Product update(Product productToUpdate) {
         String sql = "UPDATE products SET name = ?, sku = ?, price = ?, stock_quantity = ?, description = ?, expiry_date = ?, image_url = ?, category_id = ? WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, productToUpdate.getName());
             ps.setString(2, productToUpdate.getSku());
             ps.setBigDecimal(3, productToUpdate.getPrice());
             ps.setInt(4, productToUpdate.getStockQuantity());
             ps.setString(5, productToUpdate.getDescription());
-            ps.setTimestamp(6, Timestamp.valueOf(productToUpdate.getExpiryDate()));
+            setTimestamp(ps, 6, productToUpdate.getExpiryDate());
             ps.setString(7, productToUpdate.getImageUrl());
             ps.setLong(8, productToUpdate.getCategoryId());
             ps.setLong(9, productToUpdate.getId());
             ps.executeUpdate();
+            tableVersionRepository.bump(TABLE);
+            tableVersionRepository.bump("transactions"); // product names are matched by the transaction filter
             return productToUpdate;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -65,36 +91,38 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Override
     public List<Product> findAll(Long categoryId) {
-        List<Product> list = new ArrayList<>();
         String sql;
 
         if (categoryId == null){
-            sql = "SELECT * FROM products";
+            sql = "SELECT " + COLUMNS + " FROM products";
         } else {
-            sql = "SELECT * FROM products WHERE category_id = ?";
+            sql = FIND_BY_CATEGORY_SQL;
         }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-         PreparedStatement ps = conn.prepareStatement(sql)) {
-        if (categoryId != null) {
-            ps.setLong(1, categoryId);
-        }
+        return queryCacheRepository.read(TABLE, List.of(TABLE), sql, Arrays.asList(categoryId), () -> {
+            List<Product> list = new ArrayList<>();
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+                if (categoryId != null) {
+                    ps.setLong(1, categoryId);
+                }
 
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            Product product = mapRowToProduct(rs);
-            list.add(product);
-        }
-    } catch (Exception e) {
-        e.printStackTrace();
-        }
-        return list;
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    list.add(mapRowToProduct(rs));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e); // an empty list would be cached
+            }
+            return list;
+        }, QueryCacheRepositoryImpl.eachCopied(product -> product.toBuilder().build()));
     }
 
     @Override
     public Optional<Product> findById(Long id) {
-        String sql = "SELECT * FROM products WHERE id = ?";
-        try(Connection conn= DatabaseConfig.getConnection();){
+        String sql = "SELECT " + COLUMNS + " FROM products WHERE id = ?";
+        try(Connection conn= dataSource.getConnection();){
             PreparedStatement ps = conn.prepareStatement(sql);
             ps.setLong(1, id);
             ResultSet rs = ps.executeQuery();
@@ -107,11 +135,70 @@ public class ProductRepositoryImpl implements ProductRepository {
         return Optional.empty();
     }
 
+    /**
+     * Load many products in one round trip instead of one {@link #findById} per id.
+     * @param ids product ids, duplicates and nulls are ignored
+     * @return the products that exist, in no particular order
+     */
+    @Override
+    public List<Product> findAllByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Product> list = new ArrayList<>(distinctIds.size());
+        String placeholders = String.join(", ", Collections.nCopies(distinctIds.size(), "?"));
+        String sql = "SELECT " + COLUMNS + " FROM products WHERE id IN (" + placeholders + ")";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < distinctIds.size(); i++) {
+                ps.setLong(i + 1, distinctIds.get(i));
+            }
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                list.add(mapRowToProduct(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e); // an empty list would read as "not found"
+        }
+        return list;
+    }
+
+    /**
+     * Same lookup as {@link #findAllByIds} with only {@link #SUMMARY_COLUMNS}, for embedding
+     * products in transaction lists.
+     */
+    @Override
+    public List<Product> findSummariesByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Product> list = new ArrayList<>(distinctIds.size());
+        String placeholders = String.join(", ", Collections.nCopies(distinctIds.size(), "?"));
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM products WHERE id IN (" + placeholders + ")";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < distinctIds.size(); i++) {
+                ps.setLong(i + 1, distinctIds.get(i));
+            }
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                list.add(mapRowToProductSummary(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e); // an empty list would read as "not found"
+        }
+        return list;
+    }
+
     @Override
     public List<Product> findByNameContainingOrDescriptionContaining(String name, String description) {
         List<Product> list = new ArrayList<>();
-        String sql = "SELECT * FROM products WHERE name LIKE ? OR description LIKE ?";
-        try(Connection conn= DatabaseConfig.getConnection();){
+        String sql = "SELECT " + COLUMNS + " FROM products WHERE name LIKE ? OR description LIKE ?";
+        try(Connection conn= dataSource.getConnection();){
             PreparedStatement ps = conn.prepareStatement(sql);
             ps.setString(1, "%" + name + "%");
             ps.setString(2, "%" + description + "%");
@@ -129,32 +216,142 @@ public class ProductRepositoryImpl implements ProductRepository {
     @Override
     public Long deleteById(Long id) {
         String sql = "DELETE FROM products WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)){
             ps.setLong(1, id);
             ps.executeUpdate();
+            tableVersionRepository.bump(TABLE);
+            tableVersionRepository.bump("transactions"); // their product_id is set to NULL
             return 1L;
         }catch (SQLException e){
             e.printStackTrace();
         }
         return 0L;
     }
+
+    /**
+     * Deletes the products of a category ahead of the category itself, so the caller learns which ones
+     * the delete takes instead of leaving them to the foreign key cascade. The ids are read with
+     * {@code FOR UPDATE}, which also keeps new products out of the category until the caller commits.
+     * @return ids of the deleted products
+     */
+    @Override
+    public List<Long> deleteByCategoryId(Long categoryId) {
+        String selectSql = "SELECT id FROM products WHERE category_id = ? FOR UPDATE";
+        String deleteSql = "DELETE FROM products WHERE category_id = ?";
+        List<Long> deleted = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+                ps.setLong(1, categoryId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        deleted.add(rs.getLong(1));
+                    }
+                }
+            }
+            if (deleted.isEmpty()) {
+                return deleted;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
+                ps.setLong(1, categoryId);
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        tableVersionRepository.bump(TABLE);
+        tableVersionRepository.bump("transactions"); // their product_id is set to NULL
+        return deleted;
+    }
     
 
-    private Product mapRowToProduct(ResultSet rs) throws SQLException {
-        Product product = new Product();
-        product.setId(rs.getLong("id"));
-        product.setName(rs.getString("name"));
-        product.setSku(rs.getString("sku"));
-        product.setPrice(rs.getBigDecimal("price"));
-        product.setStockQuantity(rs.getInt("stock_quantity"));
-        product.setDescription(rs.getString("description"));
-        if (rs.getTimestamp("expiry_date") != null){        product.setExpiryDate(rs.getTimestamp("expiry_date").toLocalDateTime());
+    /**
+     * Apply a stock delta in the database without reading the row first.
+     * A decrement only succeeds when enough stock is left, so concurrent sells of the
+     * same product can neither lose updates nor oversell.
+     * Joins the caller's transaction so it commits with the ledger insert.
+     * @return false when the product does not exist or has too little stock
+     */
+    @Override
+    public boolean adjustStock(Long productId, int delta) {
+        String sql = "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ? AND stock_quantity + ? >= 0";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, delta);
+            ps.setLong(2, productId);
+            ps.setInt(3, delta);
+            boolean adjusted = ps.executeUpdate() > 0;
+            if (adjusted) {
+                tableVersionRepository.bump(TABLE);
+            }
+            return adjusted;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Same conditional update as {@link #adjustStock} for many products, sent as one JDBC batch.
+     * @param deltas stock delta per product id
+     * @return ids of the products whose update was refused (missing or not enough stock)
+     */
+    @Override
+    public Set<Long> adjustStockBatch(Map<Long, Integer> deltas) {
+        Set<Long> rejected = new HashSet<>();
+        if (deltas.isEmpty()) {
+            return rejected;
         }
-        product.setImageUrl(rs.getString("image_url"));
-        product.setCategoryId(rs.getLong("category_id"));
-        if (rs.getTimestamp("created_at") != null){
-        product.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());}
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(deltas.entrySet());
+        String sql = "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ? AND stock_quantity + ? >= 0";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Map.Entry<Long, Integer> entry : entries) {
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.setInt(3, entry.getValue());
+                ps.addBatch();
+            }
+            int[] updateCounts = ps.executeBatch();
+            tableVersionRepository.bump(TABLE);
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == 0) {
+                    rejected.add(entries.get(i).getKey());
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return rejected;
+    }
+
+    static Product mapRowToProductSummary(ResultSet rs) throws SQLException {
+        Product product = new Product();
+        product.setId(rs.getLong(1));
+        product.setName(rs.getString(2));
+        product.setSku(rs.getString(3));
+        product.setPrice(rs.getBigDecimal(4));
+        product.setStockQuantity(rs.getInt(5));
+        return product;
+    }
+
+    static Product mapRowToProduct(ResultSet rs) throws SQLException {
+        Product product = mapRowToProductSummary(rs);
+        product.setDescription(rs.getString(6));
+        product.setImageUrl(rs.getString(7));
+        product.setCategoryId(rs.getLong(8));
+        product.setExpiryDate(rs.getObject(9, LocalDateTime.class));
+        product.setCreatedAt(rs.getObject(10, LocalDateTime.class));
         return product;
     }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP);
+        }
+    }
 }
@@ -0,0 +1,372 @@
+package org.pdm.backend.repository.Impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pdm.backend.model.Product;
+import org.pdm.backend.repository.ProductSearchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over product name, SKU and description, replacing the
+ * {@code LIKE '%x%'} scan behind the product search box.
+ * <p>
+ * Text is lower-cased and split on anything that is not a letter or digit. Every query token is matched as a prefix of the indexed terms and all tokens must
+ * match. Hits are ranked with BM25 over a field-weighted term frequency (name 3, SKU 2, description 1),
+ * with one idf per query token shared by all its completions, so an exact term outranks a completion.
+ * Kept current by the product service, each change applied once its transaction commits, and built
+ * from the table on startup (or on the first search if the database was not reachable then).
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 3;
+    private static final int SKU_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final DataSource dataSource;
+
+    @Value("${search.products.build-on-startup:true}")
+    private boolean buildOnStartup;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+
+    // term -> documents containing it, sorted so a prefix is a sub-map
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final LongIntHashMap docsByProductId = new LongIntHashMap(1024);
+    private long[] productIds = new long[1024];
+    private float[] lengths = new float[1024];
+    private String[][] termsByDoc = new String[1024][];
+    private float[][] frequenciesByDoc = new float[1024][];
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    private int docCount;
+    private int liveDocs;
+    private double totalLength;
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        private void add(int doc, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size++] = frequency;
+        }
+
+        private void remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    docs[i] = docs[--size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!buildOnStartup) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Product search index not built on startup, will build on first search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param page zero-based
+     * @return one page of product ids, best match first, and the number of matching products
+     */
+    @Override
+    public Hits search(String query, int page, int size) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new Hits(Collections.emptyList(), 0);
+        }
+        if (!built) {
+            rebuild();
+        }
+
+        lock.readLock().lock();
+        try {
+            float averageLength = liveDocs == 0 ? 1f : (float) (totalLength / liveDocs);
+
+            // start from the rarest token, then only check its matches against the other tokens
+            Map<String, Long> matching = new HashMap<>();
+            for (String token : tokens) {
+                matching.put(token, matchingPostings(token));
+            }
+            List<String> byRarity = new ArrayList<>(tokens);
+            byRarity.sort(Comparator.comparingLong(matching::get));
+
+            // all completions of a token share its idf, so only the boost and the frequency tell them apart
+            Map<String, Float> idfs = new HashMap<>();
+            for (String token : tokens) {
+                idfs.put(token, idf((int) Math.min(liveDocs, matching.get(token))));
+            }
+
+            String rarest = byRarity.get(0);
+            Map<Integer, Float> scores = new HashMap<>();
+            // every completion, however short the prefix, so no matching product is left out of the total
+            for (Map.Entry<String, Postings> entry : completions(rarest).entrySet()) {
+                Postings list = entry.getValue();
+                float weight = boost(entry.getKey(), rarest) * idfs.get(rarest);
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    scores.merge(doc, weight * bm25(list.frequencies[i], lengths[doc], averageLength), Float::sum);
+                }
+            }
+            List<Integer> candidates = new ArrayList<>(scores.keySet());
+
+            for (String token : byRarity.subList(1, byRarity.size())) {
+                List<Integer> survivors = new ArrayList<>(candidates.size());
+                for (int doc : candidates) {
+                    String[] terms = termsByDoc[doc];
+                    float[] frequencies = frequenciesByDoc[doc];
+                    float score = 0;
+                    for (int t = 0; t < terms.length; t++) {
+                        if (terms[t].startsWith(token))
+                            score += boost(terms[t], token) * idfs.get(token)
+                                    * bm25(frequencies[t], lengths[doc], averageLength);
+                    }
+                    if (score > 0) {
+                        scores.merge(doc, score, Float::sum);
+                        survivors.add(doc);
+                    }
+                }
+                candidates = survivors;
+            }
+
+            candidates.sort((a, b) -> {
+                int byScore = Float.compare(scores.get(b), scores.get(a));
+                return byScore != 0 ? byScore : Long.compare(productIds[a], productIds[b]);
+            });
+
+            int from = Math.min(Math.max(page, 0) * Math.max(size, 1), candidates.size());
+            int to = Math.min(from + Math.max(size, 1), candidates.size());
+            List<Long> ids = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                ids.add(productIds[candidates.get(i)]);
+            }
+            return new Hits(ids, candidates.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SortedMap<String, Postings> completions(String prefix) {
+        return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    // how many postings a token touches: orders tokens cheapest first and stands in for its document frequency
+    private long matchingPostings(String token) {
+        long total = 0;
+        for (Postings list : completions(token).values()) {
+            total += list.size;
+        }
+        return total;
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static float bm25(float frequency, float length, float averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    // exact term hits outrank completions of the same prefix
+    private static float boost(String term, String token) {
+        return term.length() == token.length() ? 1f : 0.8f;
+    }
+
+    @Override
+    public void index(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        long id = product.getId();
+        String name = product.getName();
+        String sku = product.getSku();
+        String description = product.getDescription();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (built)
+                    add(id, name, sku, description);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (built)
+                    erase(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        String sql = "SELECT id, name, sku, description FROM products";
+        lock.writeLock().lock();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            clear();
+            while (rs.next()) {
+                add(rs.getLong("id"), rs.getString("name"), rs.getString("sku"), rs.getString("description"));
+            }
+            built = true;
+            log.info("Indexed {} products for search, {} terms", liveDocs, postings.size());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // called with the write lock held; replaces any previous version of the product
+    private void add(long productId, String name, String sku, String description) {
+        erase(productId);
+
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        length += count(frequencies, tokenize(name), NAME_WEIGHT);
+        length += count(frequencies, tokenize(sku), SKU_WEIGHT);
+        length += count(frequencies, tokenize(description), DESCRIPTION_WEIGHT);
+
+        int doc = freeCount > 0 ? freeDocs[--freeCount] : nextDoc();
+        productIds[doc] = productId;
+        lengths[doc] = length;
+        String[] terms = new String[frequencies.size()];
+        float[] termFrequencies = new float[frequencies.size()];
+        int t = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            terms[t] = entry.getKey();
+            termFrequencies[t++] = entry.getValue();
+            postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+        }
+        termsByDoc[doc] = terms;
+        frequenciesByDoc[doc] = termFrequencies;
+        docsByProductId.put(productId, doc);
+        liveDocs++;
+        totalLength += length;
+    }
+
+    // called with the write lock held
+    private void erase(long productId) {
+        int doc = docsByProductId.remove(productId);
+        if (doc < 0) {
+            return;
+        }
+        for (String term : termsByDoc[doc]) {
+            Postings list = postings.get(term);
+            list.remove(doc);
+            if (list.size == 0)
+                postings.remove(term);
+        }
+        termsByDoc[doc] = null;
+        frequenciesByDoc[doc] = null;
+        liveDocs--;
+        totalLength -= lengths[doc];
+        if (freeCount == freeDocs.length)
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        freeDocs[freeCount++] = doc;
+    }
+
+    private void clear() {
+        postings.clear();
+        for (int doc = 0; doc < docCount; doc++) {
+            if (termsByDoc[doc] != null)
+                docsByProductId.remove(productIds[doc]);
+            termsByDoc[doc] = null;
+            frequenciesByDoc[doc] = null;
+        }
+        docCount = 0;
+        freeCount = 0;
+        liveDocs = 0;
+        totalLength = 0;
+    }
+
+    private int nextDoc() {
+        if (docCount == productIds.length) {
+            int capacity = docCount * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            termsByDoc = Arrays.copyOf(termsByDoc, capacity);
+            frequenciesByDoc = Arrays.copyOf(frequenciesByDoc, capacity);
+        }
+        return docCount++;
+    }
+
+    private static int count(Map<String, Float> frequencies, List<String> tokens, int weight) {
+        for (String token : tokens) {
+            frequencies.merge(token, (float) weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
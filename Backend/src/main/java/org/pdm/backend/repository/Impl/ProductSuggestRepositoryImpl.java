@@ -0,0 +1,433 @@
+package org.pdm.backend.repository.Impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pdm.backend.model.Product;
+import org.pdm.backend.model.ProductSuggestion;
+import org.pdm.backend.repository.ProductSuggestRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over product names and SKUs.
+ * <p>
+ * A radix trie (edges carry whole strings, so single-child chains cost one node) holds the full name,
+ * the name from each later word on, and the SKU, all lower-cased. Every node keeps the ids of the
+ * {@value #TOP_K} best products below it, best first by units sold in the last
+ * {@code suggest.products.sales-window-days}, so a suggestion is one walk down the prefix and a copy of
+ * that list. Loaded from products and the daily SALE rollups when the app is ready; afterwards kept
+ * current from product writes and committed sales, never reading MySQL on a suggest call.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestRepositoryImpl implements ProductSuggestRepository {
+
+    private static final int TOP_K = 10;
+    private static final int MAX_KEY_LENGTH = 48; // nobody types past this in a picker
+    private static final long[] NO_IDS = new long[0];
+
+    private final DataSource dataSource;
+
+    @Value("${suggest.products.sales-window-days:30}")
+    private int salesWindowDays;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+
+    private Node root = new Node("");
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Long> salesVolume = new HashMap<>();
+
+    private record Entry(String name, String sku, List<String> keys) {
+    }
+
+    private static final class Node {
+        private String label; // edge from the parent
+        private char[] firsts = new char[0]; // first char of each child's label, sorted
+        private Node[] children = new Node[0];
+        private long[] ends = NO_IDS; // products with a key ending exactly here
+        private long[] top = NO_IDS; // best products in this subtree, best first
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int i = Arrays.binarySearch(firsts, first);
+            return i < 0 ? null : children[i];
+        }
+
+        private void putChild(Node child) {
+            int i = Arrays.binarySearch(firsts, child.label.charAt(0));
+            if (i >= 0) {
+                children[i] = child;
+                return;
+            }
+            int at = -i - 1;
+            firsts = insert(firsts, at, child.label.charAt(0));
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = child;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+        }
+
+        private void removeChild(char first) {
+            int i = Arrays.binarySearch(firsts, first);
+            if (i < 0)
+                return;
+            char[] fewerFirsts = new char[firsts.length - 1];
+            Node[] fewer = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, fewerFirsts, 0, i);
+            System.arraycopy(firsts, i + 1, fewerFirsts, i, firsts.length - i - 1);
+            System.arraycopy(children, 0, fewer, 0, i);
+            System.arraycopy(children, i + 1, fewer, i, children.length - i - 1);
+            firsts = fewerFirsts;
+            children = fewer;
+        }
+
+        private static char[] insert(char[] array, int at, char value) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, at);
+            grown[at] = value;
+            System.arraycopy(array, at, grown, at + 1, array.length - at);
+            return grown;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Product suggestions not built on startup, will build on first use: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!built) {
+            rebuild();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            int count = Math.min(Math.min(limit, TOP_K), node.top.length);
+            List<ProductSuggestion> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long id = node.top[i];
+                Entry entry = entries.get(id);
+                suggestions.add(new ProductSuggestion(id, entry.name(), entry.sku(), salesVolume.getOrDefault(id, 0L)));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a product once the surrounding transaction commits.
+     */
+    @Override
+    public void index(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        long id = product.getId();
+        String name = product.getName();
+        String sku = product.getSku();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (built)
+                    put(id, name, sku);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    erase(productId);
+                    salesVolume.remove(productId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Adds sold units and moves the products up wherever they now rank higher.
+     * Counts only grow between rebuilds, so older sales are not aged out until the next one.
+     */
+    @Override
+    public void recordSales(Map<Long, Long> unitsByProduct) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (!built)
+                    return;
+                for (Map.Entry<Long, Long> sale : unitsByProduct.entrySet()) {
+                    Entry entry = entries.get(sale.getKey());
+                    if (entry == null)
+                        continue;
+                    salesVolume.merge(sale.getKey(), sale.getValue(), Long::sum);
+                    for (String key : entry.keys()) {
+                        for (Node node : path(key)) {
+                            offer(node, sale.getKey());
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        String productsSql = "SELECT id, name, sku FROM products";
+        String salesSql = "SELECT product_id, SUM(units) AS units FROM transaction_rollups " +
+                "WHERE granularity = 'DAY' AND transaction_type = 'SALE' AND bucket_start >= ? GROUP BY product_id";
+        lock.writeLock().lock();
+        try (Connection conn = dataSource.getConnection()) {
+            root = new Node("");
+            entries.clear();
+            salesVolume.clear();
+
+            try (PreparedStatement ps = conn.prepareStatement(salesSql)) {
+                ps.setDate(1, Date.valueOf(LocalDate.now().minusDays(salesWindowDays)));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        salesVolume.put(rs.getLong("product_id"), rs.getLong("units"));
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(productsSql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    put(rs.getLong("id"), rs.getString("name"), rs.getString("sku"));
+                }
+            }
+            salesVolume.keySet().retainAll(entries.keySet());
+            built = true;
+            log.info("Built product suggestions for {} products", entries.size());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // called with the write lock held
+    private void put(long id, String name, String sku) {
+        erase(id);
+        List<String> keys = keysOf(name, sku);
+        entries.put(id, new Entry(name, sku, keys));
+        for (String key : keys) {
+            Node end = root;
+            String rest = key;
+            List<Node> path = new ArrayList<>();
+            while (!rest.isEmpty()) {
+                Node child = end.child(rest.charAt(0));
+                if (child == null) {
+                    child = new Node(rest);
+                    end.putChild(child);
+                    rest = "";
+                } else {
+                    int common = commonPrefix(child.label, rest);
+                    if (common < child.label.length()) {
+                        // split the edge; the new middle node covers exactly the old subtree so far
+                        Node middle = new Node(child.label.substring(0, common));
+                        middle.top = child.top.clone();
+                        child.label = child.label.substring(common);
+                        middle.putChild(child);
+                        end.putChild(middle);
+                        child = middle;
+                    }
+                    rest = rest.substring(common);
+                }
+                path.add(child);
+                end = child;
+            }
+            end.ends = append(end.ends, id);
+            offer(root, id);
+            for (Node node : path) {
+                offer(node, id);
+            }
+        }
+    }
+
+    // called with the write lock held
+    private void erase(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys()) {
+            List<Node> path = path(key);
+            Node end = path.get(path.size() - 1);
+            end.ends = without(end.ends, id);
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                if (contains(node.top, id))
+                    node.top = best(node, id);
+                if (i > 0 && node.ends.length == 0 && node.children.length == 0)
+                    path.get(i - 1).removeChild(node.label.charAt(0));
+            }
+        }
+    }
+
+    // root first, then every node on the way to the exact end of key
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        String rest = key;
+        while (!rest.isEmpty()) {
+            node = node.child(rest.charAt(0));
+            rest = rest.substring(node.label.length());
+            path.add(node);
+        }
+        return path;
+    }
+
+    // the node whose subtree holds every key starting with prefix
+    private Node find(String prefix) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            node = node.child(rest.charAt(0));
+            if (node == null)
+                return null;
+            if (rest.length() <= node.label.length())
+                return node.label.startsWith(rest) ? node : null;
+            if (!rest.startsWith(node.label))
+                return null;
+            rest = rest.substring(node.label.length());
+        }
+        return node;
+    }
+
+    private void offer(Node node, long id) {
+        Comparator<Long> ranking = ranking();
+        if (!contains(node.top, id)) {
+            if (node.top.length == TOP_K && ranking.compare(id, node.top[TOP_K - 1]) >= 0)
+                return;
+            node.top = node.top.length == TOP_K ? node.top.clone() : Arrays.copyOf(node.top, node.top.length + 1);
+            node.top[node.top.length - 1] = id;
+        }
+        node.top = Arrays.stream(node.top).boxed().sorted(ranking).mapToLong(Long::longValue).toArray();
+    }
+
+    // recompute a node's top list from its own ends and its children's lists, leaving out removedId
+    private long[] best(Node node, long removedId) {
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (long id : node.ends) {
+            candidates.add(id);
+        }
+        for (Node child : node.children) {
+            for (long id : child.top) {
+                candidates.add(id);
+            }
+        }
+        candidates.remove(removedId);
+        return candidates.stream().sorted(ranking()).limit(TOP_K).mapToLong(Long::longValue).toArray();
+    }
+
+    // most units sold first, then by name
+    private Comparator<Long> ranking() {
+        return Comparator.<Long>comparingLong(id -> -salesVolume.getOrDefault(id, 0L))
+                .thenComparing(id -> entries.get(id).name(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingLong(id -> id);
+    }
+
+    private static List<String> keysOf(String name, String sku) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalizedName = normalize(name);
+        for (int i = 0; i < normalizedName.length(); i++) {
+            if (i == 0 || normalizedName.charAt(i - 1) == ' ')
+                keys.add(truncate(normalizedName.substring(i)));
+        }
+        String normalizedSku = normalize(sku);
+        if (!normalizedSku.isEmpty())
+            keys.add(truncate(normalizedSku));
+        return List.copyOf(keys);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long candidate : ids) {
+            if (candidate == id)
+                return true;
+        }
+        return false;
+    }
+
+    private static long[] append(long[] ids, long id) {
+        if (contains(ids, id))
+            return ids;
+        long[] grown = Arrays.copyOf(ids, ids.length + 1);
+        grown[ids.length] = id;
+        return grown;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        return Arrays.stream(ids).filter(candidate -> candidate != id).toArray();
+    }
+}
@@ -0,0 +1,146 @@
+package org.pdm.backend.repository.Impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.model.PagedResult;
+import org.pdm.backend.repository.QueryCacheRepository;
+import org.pdm.backend.repository.TableVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Results of the list queries every open page repeats, held until a write to one of their tables.
+ * <p>
+ * An entry keeps the version of each table it was read from ({@link TableVersionRepository}), taken
+ * before the query ran, and is served only while all of them are unchanged; a result that raced a
+ * write is not stored. The least recently used entry goes once {@code query-cache.max-entries} is
+ * reached, and entries expire after {@code query-cache.ttl-seconds} to bound the staleness of writes
+ * made outside the repositories. Callers only ever get copies of an entry, never the entry itself. Hits, misses and evictions per repository are published as
+ * {@code query.cache.requests} and {@code query.cache.evictions}, the entry count as {@code query.cache.size}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class QueryCacheRepositoryImpl implements QueryCacheRepository {
+
+    private record Key(String statement, List<?> params) {
+    }
+
+    private record Entry(Object value, long[] versions, long expiresAtMillis) {
+    }
+
+    private record Meters(Counter hits, Counter misses) {
+    }
+
+    private final TableVersionRepository tableVersionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${query-cache.repositories:}")
+    private Set<String> repositories;
+
+    @Value("${query-cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${query-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private Counter evictions;
+
+    // access-ordered, so the eldest entry is the least recently used one; guarded by itself
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    @PostConstruct
+    void registerMeters() {
+        evictions = meterRegistry.counter("query.cache.evictions");
+        Gauge.builder("query.cache.size", entries, map -> {
+            synchronized (map) {
+                return map.size();
+            }
+        }).register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T read(String repository, List<String> tables, String statement, List<?> params, Supplier<T> loader,
+                      UnaryOperator<T> copy) {
+        // a read inside a write transaction may see rows that are rolled back later, and one inside a
+        // read-only transaction reads a REPEATABLE READ snapshot that may be older than the versions
+        if (!repositories.contains(repository) || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+
+        Meters counters = metersOf(repository);
+        Key key = new Key(statement, params);
+        long[] versions = versionsOf(tables);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            if (Arrays.equals(entry.versions(), versions) && entry.expiresAtMillis() > System.currentTimeMillis()) {
+                counters.hits().increment();
+                return copy.apply((T) entry.value());
+            }
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+        }
+
+        counters.misses().increment();
+        T value = loader.get();
+        if (value != null && Arrays.equals(versions, versionsOf(tables))) {
+            synchronized (entries) {
+                entries.put(key, new Entry(copy.apply(value), versions, System.currentTimeMillis() + ttlSeconds * 1000L));
+            }
+        }
+        return value;
+    }
+
+    // copy functions for the shapes the repositories cache
+    static <T> UnaryOperator<List<T>> eachCopied(UnaryOperator<T> copy) {
+        return list -> list.stream().map(copy).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    static <T> UnaryOperator<PagedResult<T>> pageCopied(UnaryOperator<T> copy) {
+        return page -> new PagedResult<>(page.getItems() == null ? null : eachCopied(copy).apply(page.getItems()),
+                page.getTotal(), page.isHasNext(), page.isEstimated());
+    }
+
+    private long[] versionsOf(List<String> tables) {
+        long[] versions = new long[tables.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = tableVersionRepository.version(tables.get(i));
+        }
+        return versions;
+    }
+
+    private Meters metersOf(String repository) {
+        return meters.computeIfAbsent(repository, name -> new Meters(
+                meterRegistry.counter("query.cache.requests", "repository", name, "result", "hit"),
+                meterRegistry.counter("query.cache.requests", "repository", name, "result", "miss")));
+    }
+}
@@ -0,0 +1,405 @@
+package org.pdm.backend.repository.Impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pdm.backend.model.Product;
+import org.pdm.backend.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Whole product table held in memory in front of {@link ProductRepositoryImpl}, enabled with
+ * {@code catalog.resident.enabled=true}.
+ * <p>
+ * Rows live in parallel column arrays indexed by a slot number; an open-addressing map finds the slot
+ * of an id and one map per category holds the slots of its products. Prices are kept as cents,
+ * timestamps as epoch microseconds, so a row costs a few dozen bytes plus its strings.
+ * Reads never touch MySQL. Writes go to the database first and reach memory only after the
+ * surrounding transaction commits; stock changes re-read the committed row since they are relative.
+ * The table is loaded on first use.
+ */
+@Repository
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "catalog.resident.enabled", havingValue = "true")
+public class ResidentProductRepositoryImpl implements ProductRepository {
+
+    private static final long NONE = Long.MIN_VALUE; // null price or timestamp
+
+    private final ProductRepositoryImpl productRepositoryImpl;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    private LongIntHashMap slotsById;
+    private final Map<Long, LongIntHashMap> slotsByCategory = new HashMap<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    // columns, indexed by slot
+    private long[] ids;
+    private long[] prices;
+    private int[] stocks;
+    private long[] categoryIds;
+    private long[] expiryDates;
+    private long[] createdAts;
+    private String[] names;
+    private String[] skus;
+    private String[] descriptions;
+    private String[] imageUrls;
+
+    @Override
+    public Optional<Product> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            return slot < 0 ? Optional.empty() : Optional.of(toProduct(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findAll(Long categoryId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int[] slots;
+            if (categoryId == null) {
+                slots = slotsById.values();
+            } else {
+                LongIntHashMap category = slotsByCategory.get(categoryId);
+                slots = category == null ? new int[0] : category.values();
+            }
+            return toProductsById(slots);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findAllByIds(Collection<Long> ids) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<Product> list = new ArrayList<>(ids.size());
+            Set<Long> seen = new HashSet<>();
+            for (Long id : ids) {
+                if (id == null || !seen.add(id))
+                    continue;
+                int slot = slotsById.get(id);
+                if (slot >= 0)
+                    list.add(toProduct(slot));
+            }
+            return list;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // already in memory, so the full products cost nothing more
+    @Override
+    public List<Product> findSummariesByIds(Collection<Long> ids) {
+        return findAllByIds(ids);
+    }
+
+    @Override
+    public List<Product> findByNameContainingOrDescriptionContaining(String name, String description) {
+        return productRepositoryImpl.findByNameContainingOrDescriptionContaining(name, description);
+    }
+
+    @Override
+    public Product save(Product productToSave) {
+        Product saved = productRepositoryImpl.save(productToSave);
+        if (saved != null) {
+            Product snapshot = copyOf(saved);
+            AfterCommit.run(() -> put(snapshot));
+        }
+        return saved;
+    }
+
+    @Override
+    public Product update(Product productToUpdate) {
+        Product updated = productRepositoryImpl.update(productToUpdate);
+        if (updated != null) {
+            Product snapshot = copyOf(updated);
+            AfterCommit.run(() -> put(snapshot));
+        }
+        return updated;
+    }
+
+    @Override
+    public Long deleteById(Long id) {
+        Long deleted = productRepositoryImpl.deleteById(id);
+        AfterCommit.run(() -> remove(id));
+        return deleted;
+    }
+
+    @Override
+    public List<Long> deleteByCategoryId(Long categoryId) {
+        List<Long> deleted = productRepositoryImpl.deleteByCategoryId(categoryId);
+        if (!deleted.isEmpty()) {
+            AfterCommit.run(() -> deleted.forEach(this::remove));
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean adjustStock(Long productId, int delta) {
+        boolean adjusted = productRepositoryImpl.adjustStock(productId, delta);
+        if (adjusted) {
+            AfterCommit.run(() -> refresh(List.of(productId)));
+        }
+        return adjusted;
+    }
+
+    @Override
+    public Set<Long> adjustStockBatch(Map<Long, Integer> deltas) {
+        Set<Long> rejected = productRepositoryImpl.adjustStockBatch(deltas);
+        List<Long> adjusted = deltas.keySet().stream().filter(id -> !rejected.contains(id)).toList();
+        if (!adjusted.isEmpty()) {
+            AfterCommit.run(() -> refresh(adjusted));
+        }
+        return rejected;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            List<Product> products = productRepositoryImpl.findAll(null);
+            allocate(Math.max(16, products.size() + products.size() / 4));
+            for (Product product : products) {
+                write(product);
+            }
+            loaded = true;
+            log.info("Loaded {} products into the resident catalog", products.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (loaded)
+                write(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (loaded)
+                erase(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // stock moved relative to the committed value, so take the committed row rather than replaying the delta
+    private void refresh(Collection<Long> productIds) {
+        if (!loaded) {
+            return;
+        }
+        List<Product> current;
+        try {
+            current = productRepositoryImpl.findAllByIds(productIds);
+        } catch (RuntimeException e) {
+            // the write itself committed; drop the catalog so the next read loads the committed rows
+            log.warn("Could not re-read products {} after a stock change, reloading the catalog: {}", productIds, e.getMessage());
+            lock.writeLock().lock();
+            try {
+                loaded = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded)
+                return;
+            Set<Long> found = new HashSet<>();
+            for (Product product : current) {
+                write(product);
+                found.add(product.getId());
+            }
+            for (Long id : productIds) {
+                if (!found.contains(id))
+                    erase(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // called with the write lock held
+    private void write(Product product) {
+        long id = product.getId();
+        int slot = slotsById.get(id);
+        if (slot < 0) {
+            slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+            slotsById.put(id, slot);
+        } else if (categoryIds[slot] != categoryOf(product)) {
+            removeFromCategory(categoryIds[slot], id);
+        }
+        ids[slot] = id;
+        prices[slot] = product.getPrice() == null ? NONE
+                : product.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        stocks[slot] = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+        categoryIds[slot] = categoryOf(product);
+        expiryDates[slot] = toMicros(product.getExpiryDate());
+        createdAts[slot] = toMicros(product.getCreatedAt());
+        names[slot] = product.getName();
+        skus[slot] = product.getSku();
+        descriptions[slot] = product.getDescription();
+        imageUrls[slot] = product.getImageUrl();
+        slotsByCategory.computeIfAbsent(categoryIds[slot], c -> new LongIntHashMap(64)).put(id, slot);
+    }
+
+    // called with the write lock held
+    private void erase(long id) {
+        int slot = slotsById.remove(id);
+        if (slot < 0) {
+            return;
+        }
+        removeFromCategory(categoryIds[slot], id);
+        names[slot] = skus[slot] = descriptions[slot] = imageUrls[slot] = null;
+        if (freeCount == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void removeFromCategory(long categoryId, long id) {
+        LongIntHashMap category = slotsByCategory.get(categoryId);
+        if (category != null) {
+            category.remove(id);
+            if (category.size() == 0)
+                slotsByCategory.remove(categoryId);
+        }
+    }
+
+    private int nextSlot() {
+        if (slotCount == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            expiryDates = Arrays.copyOf(expiryDates, capacity);
+            createdAts = Arrays.copyOf(createdAts, capacity);
+            names = Arrays.copyOf(names, capacity);
+            skus = Arrays.copyOf(skus, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            imageUrls = Arrays.copyOf(imageUrls, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void allocate(int capacity) {
+        slotsById = new LongIntHashMap(capacity);
+        slotsByCategory.clear();
+        freeCount = 0;
+        slotCount = 0;
+        ids = new long[capacity];
+        prices = new long[capacity];
+        stocks = new int[capacity];
+        categoryIds = new long[capacity];
+        expiryDates = new long[capacity];
+        createdAts = new long[capacity];
+        names = new String[capacity];
+        skus = new String[capacity];
+        descriptions = new String[capacity];
+        imageUrls = new String[capacity];
+    }
+
+    // called with the read lock held; same ascending id order as the table scan it replaces
+    private List<Product> toProductsById(int[] slots) {
+        long[] sortedIds = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            sortedIds[i] = ids[slots[i]];
+        }
+        Arrays.sort(sortedIds);
+        List<Product> list = new ArrayList<>(slots.length);
+        for (long id : sortedIds) {
+            list.add(toProduct(slotsById.get(id)));
+        }
+        return list;
+    }
+
+    // a fresh object every time; callers are free to modify it
+    private Product toProduct(int slot) {
+        Product product = new Product();
+        product.setId(ids[slot]);
+        product.setName(names[slot]);
+        product.setSku(skus[slot]);
+        product.setPrice(prices[slot] == NONE ? null : BigDecimal.valueOf(prices[slot], 2));
+        product.setStockQuantity(stocks[slot]);
+        product.setDescription(descriptions[slot]);
+        if (expiryDates[slot] != NONE)
+            product.setExpiryDate(fromMicros(expiryDates[slot]));
+        product.setImageUrl(imageUrls[slot]);
+        product.setCategoryId(categoryIds[slot]);
+        if (createdAts[slot] != NONE)
+            product.setCreatedAt(fromMicros(createdAts[slot]));
+        return product;
+    }
+
+    private static Product copyOf(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .sku(product.getSku())
+                .price(product.getPrice())
+                .stockQuantity(product.getStockQuantity())
+                .description(product.getDescription())
+                .expiryDate(product.getExpiryDate())
+                .imageUrl(product.getImageUrl())
+                .createdAt(product.getCreatedAt())
+                .categoryId(product.getCategoryId())
+                .build();
+    }
+
+    private static long categoryOf(Product product) {
+        return product.getCategoryId() == null ? 0L : product.getCategoryId();
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time == null ? NONE : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
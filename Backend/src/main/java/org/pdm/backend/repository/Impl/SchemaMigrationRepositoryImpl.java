@@ -0,0 +1,345 @@
+package org.pdm.backend.repository.Impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pdm.backend.enums.TransactionStatus;
+import org.pdm.backend.enums.TransactionType;
+import org.pdm.backend.model.QueryPlanCheck;
+import org.pdm.backend.model.SchemaMigration;
+import org.pdm.backend.repository.SchemaMigrationRepository;
+import org.pdm.backend.wrappers.TransactionFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned scripts under {@code db/migration} in version order and records each one in
+ * {@code schema_migrations}, so a database only ever runs the scripts it has not seen yet.
+ * Works on the pool directly: it runs while the repositories' DataSource is being created.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class SchemaMigrationRepositoryImpl implements SchemaMigrationRepository {
+
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK_NAME = "schema_migrations";
+
+    private final HikariDataSource poolDataSource;
+
+    @Value("${migrations.lock-timeout-seconds:60}")
+    private int lockTimeoutSeconds;
+
+    private record Script(int version, String description, long checksum, Resource resource) {}
+
+    /**
+     * One statement the repositories run on every list or lookup, with the index it relies on.
+     * When {@code expectedKey} is null the index is any one that starts with {@code leadingColumn},
+     * since older databases carry those under MySQL's generated names.
+     */
+    private record PlanCheck(String query, String sql, List<Object> params, String table,
+                             String expectedKey, String leadingColumn) {}
+
+    /**
+     * Bring the schema up to the newest script. Only one instance migrates at a time
+     * ({@code GET_LOCK}); the others wait and then find nothing left to do.
+     * @return every known migration after the run
+     * @throws IllegalStateException when an applied script was edited afterwards
+     */
+    @Override
+    public List<SchemaMigration> migrate() {
+        List<Script> scripts = resolveScripts();
+        try (Connection conn = poolDataSource.getConnection()) {
+            createHistoryTable(conn);
+            acquireLock(conn);
+            try {
+                Map<Integer, SchemaMigration> applied = findApplied(conn);
+                for (Script script : scripts) {
+                    SchemaMigration done = applied.get(script.version());
+                    if (done == null) {
+                        applied.put(script.version(), apply(conn, script));
+                    } else if (done.getChecksum() != script.checksum()) {
+                        throw new IllegalStateException("Migration V" + script.version() + " (" + script.description() +
+                                ") was changed after it was applied; add a new version instead");
+                    }
+                }
+                if (applied.size() > scripts.size()) {
+                    log.warn("schema_migrations lists versions that have no script on the classpath");
+                }
+                return new ArrayList<>(applied.values());
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Applied migrations followed by the ones still pending ({@code appliedAt} null).
+     */
+    @Override
+    public List<SchemaMigration> findAll() {
+        try (Connection conn = poolDataSource.getConnection()) {
+            createHistoryTable(conn);
+            Map<Integer, SchemaMigration> migrations = findApplied(conn);
+            for (Script script : resolveScripts()) {
+                migrations.putIfAbsent(script.version(), SchemaMigration.builder()
+                        .version(script.version())
+                        .description(script.description())
+                        .checksum(script.checksum())
+                        .build());
+            }
+            return new ArrayList<>(migrations.values());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * EXPLAIN each hot statement and report the index, access type and estimated rows MySQL chose.
+     * A check fails on a full table scan or when an index other than the expected one is picked.
+     * Estimates depend on the data, so on a nearly empty database a scan can be the right plan.
+     */
+    @Override
+    public List<QueryPlanCheck> checkQueryPlans() {
+        List<QueryPlanCheck> checks = new ArrayList<>();
+        try (Connection conn = poolDataSource.getConnection()) {
+            for (PlanCheck check : planChecks()) {
+                checks.add(explain(conn, check));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return checks;
+    }
+
+    private QueryPlanCheck explain(Connection conn, PlanCheck check) {
+        QueryPlanCheck.QueryPlanCheckBuilder result = QueryPlanCheck.builder().query(check.query());
+        try {
+            String expectedKey = check.expectedKey() != null
+                    ? check.expectedKey()
+                    : indexStartingWith(conn, check.table(), check.leadingColumn());
+            result.expectedKey(expectedKey);
+            try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + check.sql())) {
+                for (int i = 0; i < check.params().size(); i++) {
+                    ps.setObject(i + 1, check.params().get(i));
+                }
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    if (!check.table().equals(rs.getString("table"))) {
+                        continue;
+                    }
+                    String type = rs.getString("type");
+                    String key = rs.getString("key");
+                    result.accessType(type).key(key).estimatedRows(rs.getLong("rows"));
+                    if ("ALL".equals(type)) {
+                        return result.ok(false).warning("Full scan of " + check.table()).build();
+                    }
+                    if (expectedKey != null && !expectedKey.equals(key)) {
+                        return result.ok(false).warning("Uses " + (key == null ? "no index" : key) +
+                                " instead of " + expectedKey).build();
+                    }
+                    return result.ok(true).build();
+                }
+                // the optimizer answered from a unique key lookup that found no row
+                return result.accessType("const").key(expectedKey).ok(true).build();
+            }
+        } catch (SQLException e) {
+            return result.ok(false).warning(e.getMessage()).build();
+        }
+    }
+
+    private String indexStartingWith(Connection conn, String table, String column) throws SQLException {
+        String sql = "SELECT index_name FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ? AND seq_in_index = 1 " +
+                "ORDER BY non_unique, index_name LIMIT 1";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private SchemaMigration apply(Connection conn, Script script) throws SQLException {
+        log.info("Applying migration V{} ({})", script.version(), script.description());
+        long start = System.nanoTime();
+        // MySQL commits DDL implicitly, so a failed script stays unrecorded and its guards let it run again
+        ScriptUtils.executeSqlScript(conn, new EncodedResource(script.resource(), StandardCharsets.UTF_8));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        LocalDateTime appliedAt = LocalDateTime.now();
+
+        String sql = "INSERT INTO schema_migrations (version, description, checksum, applied_at, execution_millis) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, script.version());
+            ps.setString(2, script.description());
+            ps.setLong(3, script.checksum());
+            ps.setTimestamp(4, Timestamp.valueOf(appliedAt));
+            ps.setLong(5, millis);
+            ps.executeUpdate();
+        }
+        return SchemaMigration.builder()
+                .version(script.version())
+                .description(script.description())
+                .checksum(script.checksum())
+                .appliedAt(appliedAt)
+                .executionMillis(millis)
+                .build();
+    }
+
+    private Map<Integer, SchemaMigration> findApplied(Connection conn) throws SQLException {
+        Map<Integer, SchemaMigration> applied = new TreeMap<>();
+        String sql = "SELECT version, description, checksum, applied_at, execution_millis FROM schema_migrations";
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Timestamp appliedAt = rs.getTimestamp("applied_at");
+                applied.put(rs.getInt("version"), SchemaMigration.builder()
+                        .version(rs.getInt("version"))
+                        .description(rs.getString("description"))
+                        .checksum(rs.getLong("checksum"))
+                        .appliedAt(appliedAt != null ? appliedAt.toLocalDateTime() : null)
+                        .executionMillis(rs.getLong("execution_millis"))
+                        .build());
+            }
+        }
+        return applied;
+    }
+
+    private void createHistoryTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "version INT NOT NULL, " +
+                "description VARCHAR(200) NOT NULL, " +
+                "checksum BIGINT NOT NULL, " +
+                "applied_at DATETIME NOT NULL, " +
+                "execution_millis BIGINT NOT NULL, " +
+                "PRIMARY KEY (version))";
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, lockTimeoutSeconds);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next() || rs.getInt(1) != 1) {
+                throw new IllegalStateException("Another instance has held the schema migration lock for more than " +
+                        lockTimeoutSeconds + "s");
+            }
+        }
+    }
+
+    private void releaseLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery();
+        }
+    }
+
+    private List<Script> resolveScripts() {
+        Map<Integer, Script> scripts = new TreeMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                Matcher name = SCRIPT_NAME.matcher(resource.getFilename() != null ? resource.getFilename() : "");
+                if (!name.matches()) {
+                    continue;
+                }
+                int version = Integer.parseInt(name.group(1));
+                Script script = new Script(version, name.group(2).replace('_', ' '), checksum(resource), resource);
+                if (scripts.put(version, script) != null) {
+                    throw new IllegalStateException("Two migration scripts use version " + version);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return new ArrayList<>(scripts.values());
+    }
+
+    // line endings are left out so a checkout with CRLF does not look like an edited script
+    private static long checksum(Resource resource) throws IOException {
+        String content = resource.getContentAsString(StandardCharsets.UTF_8).replace("\r", "");
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * The statements are the repositories' own, built the way they build them, so a check explains
+     * exactly what runs.
+     */
+    private static List<PlanCheck> planChecks() {
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        Timestamp from = Timestamp.valueOf(monthStart);
+        Timestamp to = Timestamp.valueOf(monthStart.plusMonths(1));
+        return List.of(
+                transactionPageCheck("transactions by supplier",
+                        TransactionFilter.builder().supplierId(1L).status(TransactionStatus.COMPLETED).type(TransactionType.PURCHASE).build(),
+                        "idx_transactions_supplier"),
+                transactionPageCheck("transactions by product",
+                        TransactionFilter.builder().productId(1L).from(monthStart).build(),
+                        "idx_transactions_product"),
+                transactionPageCheck("transactions by user",
+                        TransactionFilter.builder().userId(1L).from(monthStart).build(),
+                        "idx_transactions_user"),
+                transactionPageCheck("transactions by type and status",
+                        TransactionFilter.builder().type(TransactionType.SALE).status(TransactionStatus.PENDING).from(monthStart).build(),
+                        "idx_transactions_type_status"),
+                transactionSearchCheck("transactions search", "+restock*"),
+                new PlanCheck("transactions of a month", TransactionRepositoryImpl.FIND_BY_MONTH_SQL,
+                        List.of(from, to), "t", "idx_transactions_daily_summary", null),
+                new PlanCheck("daily summary", TransactionRepositoryImpl.SUMMARIZE_DAILY_SQL,
+                        List.of(from, to), "transactions", "idx_transactions_daily_summary", null),
+                new PlanCheck("products by category", ProductRepositoryImpl.FIND_BY_CATEGORY_SQL,
+                        List.of(1L), "products", null, "category_id"),
+                new PlanCheck("user by email", UserRepositoryImpl.FIND_BY_EMAIL_SQL,
+                        List.of("admin@gmail.com"), "users", null, "email"),
+                new PlanCheck("category by name", CategoryRepositoryImpl.FIND_BY_NAME_SQL,
+                        List.of("Electronics"), "categories", null, "name")
+        );
+    }
+
+    // first page with its total, as findAllFilteredPaged reads it
+    private static PlanCheck transactionPageCheck(String query, TransactionFilter filter, String expectedKey) {
+        List<Object> params = new ArrayList<>();
+        String sql = TransactionRepositoryImpl.pageSql(TransactionRepositoryImpl.structuredConditions(filter, params), true);
+        params.add(20);
+        params.add(0);
+        return new PlanCheck(query, sql, params, "t", expectedKey, null);
+    }
+
+    // first ranked page, as searchRanked reads it; the full-text branch is the unaliased transactions row
+    private static PlanCheck transactionSearchCheck(String query, String booleanQuery) {
+        List<Object> params = new ArrayList<>();
+        String sql = TransactionRepositoryImpl.rankedPageSql(
+                TransactionRepositoryImpl.rankedFrom(booleanQuery, TransactionFilter.builder().build(), params), true);
+        params.add(20);
+        params.add(0);
+        return new PlanCheck(query, sql, params, "transactions", "ft_transactions_text", null);
+    }
+}
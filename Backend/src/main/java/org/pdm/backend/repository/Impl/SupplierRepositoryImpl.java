@@ -1,24 +1,41 @@
 package org.pdm.backend.repository.Impl;
 
+import lombok.RequiredArgsConstructor;
 import org.pdm.backend.model.Product;
 import org.pdm.backend.model.Supplier;
+import org.pdm.backend.repository.QueryCacheRepository;
+import org.pdm.backend.repository.TableVersionRepository;
 import org.pdm.backend.repository.SupplierRepository; 
-import org.pdm.backend.security.DatabaseConfig;
 import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.stereotype.Repository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
-@Repository
+import javax.sql.DataSource;
 
+@Repository
+@RequiredArgsConstructor
 public class SupplierRepositoryImpl implements SupplierRepository {
+
+    private final DataSource dataSource;
+    private final TableVersionRepository tableVersionRepository;
+    private final QueryCacheRepository queryCacheRepository;
+
+    private static final String TABLE = "suppliers";
+
+    // order read by mapRowToSupplier
+    static final String COLUMNS = "id, name, contact_info, address";
+
     @Override
     public Optional<Supplier> findById(Long id){
-        String sql = "SELECT * FROM suppliers WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection();
+        String sql = "SELECT " + COLUMNS + " FROM suppliers WHERE id = ?";
+        try (Connection conn = dataSource.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql)){
             ps.setLong(1, id);
             ResultSet rs = ps.executeQuery();
@@ -34,18 +51,44 @@ public class SupplierRepositoryImpl implements SupplierRepository {
     }
     @Override
     public List<Supplier> findAll(){
-        List<Supplier> list = new ArrayList();
-        String sql = "SELECT * FROM suppliers";
-
-        try (Connection conn = DatabaseConfig.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery()) {
-            while (rs.next()){
-                list.add(mapRowToSupplier(rs));
+        String sql = "SELECT " + COLUMNS + " FROM suppliers";
+        return queryCacheRepository.read(TABLE, List.of(TABLE), sql, List.of(), () -> {
+            List<Supplier> list = new ArrayList<>();
+            try (Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+                while (rs.next()){
+                    list.add(mapRowToSupplier(rs));
+                }
             }
+            catch (SQLException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e); // an empty list would be cached
+            }
+            return list;
+        }, QueryCacheRepositoryImpl.eachCopied(supplier -> supplier.toBuilder().build()));
+    }
+    @Override
+    public List<Supplier> findAllByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Supplier> list = new ArrayList<>(distinctIds.size());
+        String placeholders = String.join(", ", Collections.nCopies(distinctIds.size(), "?"));
+        String sql = "SELECT " + COLUMNS + " FROM suppliers WHERE id IN (" + placeholders + ")";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < distinctIds.size(); i++) {
+                ps.setLong(i + 1, distinctIds.get(i));
             }
-        catch (SQLException e) {
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                list.add(mapRowToSupplier(rs));
+            }
+        } catch (SQLException e) {
             e.printStackTrace();
+            throw new RuntimeException(e); // an empty list would read as "not found"
         }
         return list;
     }
@@ -53,7 +96,7 @@ public class SupplierRepositoryImpl implements SupplierRepository {
     public Supplier save (Supplier supplierToSave){
         String sql = "INSERT INTO suppliers (name, contact_info, address) VALUES (?,?,?)";
         
-        try(Connection conn = DatabaseConfig.getConnection();
+        try(Connection conn = dataSource.getConnection();
         PreparedStatement ps = conn.prepareStatement(sql,Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1,supplierToSave.getName());
             ps.setString(2,supplierToSave.getContactInfo());
@@ -65,6 +108,7 @@ public class SupplierRepositoryImpl implements SupplierRepository {
             ResultSet generateKeys = ps.getGeneratedKeys();
             if (generateKeys.next()){
                 supplierToSave.setId(generateKeys.getLong(1));
+                tableVersionRepository.bump(TABLE);
                 return supplierToSave;
             }
             else {
@@ -78,13 +122,14 @@ public class SupplierRepositoryImpl implements SupplierRepository {
         @Override
         public Supplier update(Supplier supplierToUpdate){
             String sql = "UPDATE suppliers SET name = ?, contact_info = ?, address = ? WHERE id = ?";
-            try (Connection conn = DatabaseConfig.getConnection();
+            try (Connection conn = dataSource.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sql)){
                     ps.setString(1, supplierToUpdate.getName());
                     ps.setString(2, supplierToUpdate.getContactInfo());
                     ps.setString(3, supplierToUpdate.getAddress());
                     ps.setLong(4, supplierToUpdate.getId());
                     ps.executeUpdate();
+                    tableVersionRepository.bump(TABLE);
                     return supplierToUpdate;
             }
             catch (SQLException e){
@@ -94,23 +139,25 @@ public class SupplierRepositoryImpl implements SupplierRepository {
         } 
         @Override public Long deleteById(Long id) {
             String sql = "DELETE FROM suppliers WHERE id = ?";
-            try (Connection conn = DatabaseConfig.getConnection();
+            try (Connection conn = dataSource.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sql)){
                     ps.setLong(1,id);
                     int affectedRows = ps.executeUpdate();
+                    tableVersionRepository.bump(TABLE);
+                    tableVersionRepository.bump("transactions"); // their supplier_id is set to NULL
                     return (long) affectedRows;
                 }
             catch (SQLException e){
                 e.printStackTrace();
+                throw new RuntimeException(e); // the caller would drop a supplier that is still there
             }
-            return 0L;
         }
 
     @Override
     public List<Supplier> searchSupplierByAnything(String input) {
         List<Supplier> list = new ArrayList<>();
-        String sql = "SELECT * FROM suppliers WHERE name LIKE ? OR contact_info LIKE ? OR address LIKE ?";
-        try(Connection conn= DatabaseConfig.getConnection();
+        String sql = "SELECT " + COLUMNS + " FROM suppliers WHERE name LIKE ? OR contact_info LIKE ? OR address LIKE ?";
+        try(Connection conn= dataSource.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql);){
             String filter = "%" + input + "%";
             ps.setString(1, filter);
@@ -127,12 +174,12 @@ public class SupplierRepositoryImpl implements SupplierRepository {
         return list;
     }
 
-    private Supplier mapRowToSupplier(ResultSet rs) throws SQLException{
-            return Supplier.builder()
-                            .id(rs.getLong("id"))
-                            .name(rs.getString("name"))
-                            .contactInfo(rs.getString("contact_info"))
-                            .address(rs.getString("address"))
-                            .build();
-        }
+    static Supplier mapRowToSupplier(ResultSet rs) throws SQLException {
+        return Supplier.builder()
+                .id(rs.getLong(1))
+                .name(rs.getString(2))
+                .contactInfo(rs.getString(3))
+                .address(rs.getString(4))
+                .build();
     }
+}
@@ -0,0 +1,275 @@
+package org.pdm.backend.repository.Impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pdm.backend.model.Supplier;
+import org.pdm.backend.repository.SupplierSearchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant supplier search over name, contact info and address.
+ * <p>
+ * Every word is padded ({@code "  word "}) and cut into trigrams, the way pg_trgm does it, and each
+ * trigram points at the suppliers and fields containing it. A supplier's score is the best field's
+ * share of the query's trigrams (name weighted highest), plus one when the field contains the query
+ * as-is, so what the old LIKE search found still ranks first. Suppliers under
+ * {@code search.suppliers.similarity-threshold} are left out.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SupplierSearchRepositoryImpl implements SupplierSearchRepository {
+
+    private static final int NAME = 0;
+    private static final int CONTACT_INFO = 1;
+    private static final int ADDRESS = 2;
+    private static final float[] FIELD_WEIGHTS = {1f, 0.9f, 0.8f};
+
+    private final DataSource dataSource;
+
+    @Value("${search.suppliers.similarity-threshold:0.3}")
+    private float similarityThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private record Document(long id, String name, String[] fields, Set<String> trigrams) {
+    }
+
+    // suppliers containing a trigram, with a bit per field it occurs in
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private byte[] fieldMasks = new byte[4];
+        private int size;
+
+        private void add(long id, int fieldMask) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fieldMasks = Arrays.copyOf(fieldMasks, size * 2);
+            }
+            ids[size] = id;
+            fieldMasks[size++] = (byte) fieldMask;
+        }
+
+        private void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    fieldMasks[i] = fieldMasks[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Supplier search index not built on startup, will build on first search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return ids of matching suppliers, most similar first
+     */
+    @Override
+    public List<Long> search(String input) {
+        String query = normalize(input);
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!built) {
+            rebuild();
+        }
+
+        lock.readLock().lock();
+        try {
+            // count shared trigrams per supplier and field
+            Map<Long, int[]> hits = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                Postings list = postings.get(trigram);
+                if (list == null)
+                    continue;
+                for (int i = 0; i < list.size; i++) {
+                    int[] perField = hits.computeIfAbsent(list.ids[i], id -> new int[FIELD_WEIGHTS.length]);
+                    for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                        if ((list.fieldMasks[i] & (1 << field)) != 0)
+                            perField[field]++;
+                    }
+                }
+            }
+
+            Map<Long, Float> scores = new HashMap<>();
+            for (Map.Entry<Long, int[]> hit : hits.entrySet()) {
+                Document document = documents.get(hit.getKey());
+                float best = 0;
+                for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                    float score = FIELD_WEIGHTS[field] * hit.getValue()[field] / queryTrigrams.size();
+                    if (document.fields()[field].contains(query))
+                        score += 1;
+                    best = Math.max(best, score);
+                }
+                if (best >= similarityThreshold)
+                    scores.put(hit.getKey(), best);
+            }
+
+            List<Long> ids = new ArrayList<>(scores.keySet());
+            ids.sort((a, b) -> {
+                int byScore = Float.compare(scores.get(b), scores.get(a));
+                if (byScore != 0)
+                    return byScore;
+                int byName = documents.get(a).name().compareTo(documents.get(b).name());
+                return byName != 0 ? byName : Long.compare(a, b);
+            });
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a supplier once the surrounding transaction (if any) commits.
+     */
+    @Override
+    public void index(Supplier supplier) {
+        if (supplier.getId() == null) {
+            return;
+        }
+        long id = supplier.getId();
+        String name = supplier.getName();
+        String contactInfo = supplier.getContactInfo();
+        String address = supplier.getAddress();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (built)
+                    add(id, name, contactInfo, address);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long supplierId) {
+        if (supplierId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (built)
+                    erase(supplierId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        String sql = "SELECT id, name, contact_info, address FROM suppliers";
+        lock.writeLock().lock();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            postings.clear();
+            documents.clear();
+            while (rs.next()) {
+                add(rs.getLong("id"), rs.getString("name"), rs.getString("contact_info"), rs.getString("address"));
+            }
+            built = true;
+            log.info("Indexed {} suppliers for search, {} trigrams", documents.size(), postings.size());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // called with the write lock held
+    private void add(long id, String name, String contactInfo, String address) {
+        erase(id);
+        String[] fields = new String[FIELD_WEIGHTS.length];
+        fields[NAME] = normalize(name);
+        fields[CONTACT_INFO] = normalize(contactInfo);
+        fields[ADDRESS] = normalize(address);
+
+        Map<String, Integer> fieldMasks = new HashMap<>();
+        for (int field = 0; field < fields.length; field++) {
+            int bit = 1 << field;
+            for (String trigram : trigrams(fields[field])) {
+                fieldMasks.merge(trigram, bit, (a, b) -> a | b);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : fieldMasks.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), trigram -> new Postings()).add(id, entry.getValue());
+        }
+        documents.put(id, new Document(id, name == null ? "" : name, fields, fieldMasks.keySet()));
+    }
+
+    // called with the write lock held
+    private void erase(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String trigram : document.trigrams()) {
+            Postings list = postings.get(trigram);
+            list.remove(id);
+            if (list.size == 0)
+                postings.remove(trigram);
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            normalized.append(Character.isLetterOrDigit(c) ? c : ' ');
+        }
+        return normalized.toString().trim().replaceAll(" +", " ");
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return trigrams;
+        }
+        for (String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
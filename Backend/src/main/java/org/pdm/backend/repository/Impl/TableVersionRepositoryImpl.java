@@ -0,0 +1,33 @@
+package org.pdm.backend.repository.Impl;
+
+import org.pdm.backend.repository.TableVersionRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory write counters per table, bumped by the repositories after every committed write.
+ * Caches store the versions they read before loading and serve an entry only while they are unchanged.
+ */
+@Repository
+public class TableVersionRepositoryImpl implements TableVersionRepository {
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public long version(String table) {
+        return versionOf(table).get();
+    }
+
+    @Override
+    public void bump(String table) {
+        AtomicLong version = versionOf(table);
+        AfterCommit.run(version::incrementAndGet);
+    }
+
+    private AtomicLong versionOf(String table) {
+        return versions.computeIfAbsent(table, name -> new AtomicLong());
+    }
+}
@@ -1,74 +1,229 @@
 package org.pdm.backend.repository.Impl;
 
 import lombok.RequiredArgsConstructor;
+import org.pdm.backend.enums.CountMode;
 import org.pdm.backend.enums.TransactionStatus;
 import org.pdm.backend.enums.TransactionType;
 import org.pdm.backend.enums.UserRole;
+import org.pdm.backend.exception.InsufficientStockException;
+import org.pdm.backend.model.DailyTransactionSummary;
+import org.pdm.backend.model.PagedResult;
 import org.pdm.backend.model.Product;
 import org.pdm.backend.model.Supplier;
 import org.pdm.backend.model.Transaction;
 import org.pdm.backend.model.User;
+import org.pdm.backend.repository.CountCacheRepository;
+import org.pdm.backend.repository.QueryCacheRepository;
+import org.pdm.backend.repository.TableVersionRepository;
+import org.pdm.backend.repository.CountCacheRepository.CachedCount;
 import org.pdm.backend.repository.ProductRepository;
-import org.pdm.backend.repository.SupplierRepository;
+import org.pdm.backend.repository.ProductSuggestRepository;
 import org.pdm.backend.repository.TransactionRepository;
-import org.pdm.backend.repository.UserRepository;
-import org.pdm.backend.security.DatabaseConfig;
+import org.pdm.backend.repository.TransactionRollupRepository;
+import org.pdm.backend.wrappers.TransactionFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
 
 @RequiredArgsConstructor
 @Repository
 public class TransactionRepositoryImpl implements TransactionRepository {
-    private final SupplierRepository supplierRepository;
     private final ProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final TransactionRollupRepository transactionRollupRepository;
+    private final ProductSuggestRepository productSuggestRepository;
+    private final CountCacheRepository countCacheRepository;
+    private final TableVersionRepository tableVersionRepository;
+    private final QueryCacheRepository queryCacheRepository;
+    private final DataSource dataSource;
+
+    private static final String TABLE = "transactions";
+    // cached pages carry product summaries and match product names
+    private static final List<String> CACHED_TABLES = List.of(TABLE, "products");
+
+    // list views: what the transaction table and dashboard show, read by ordinal in mapToTransaction
+    static final String LIST_COLUMNS = "t.id, t.total_products, t.total_price, t.transaction_type, t.status, " +
+            "t.product_id, t.created_at";
+    private static final int LIST_COLUMN_COUNT = 7;
+    // detail view: the list columns followed by the free text, last update, user and supplier
+    static final String DETAIL_COLUMNS = LIST_COLUMNS + ", t.description, t.note, t.update_at, t.user_id, t.supplier_id";
+    private static final int DETAIL_COLUMN_COUNT = LIST_COLUMN_COUNT + 5;
+    // column order is what mapToTransactionDetail reads by ordinal
+    static final String FIND_BY_ID_SQL = "SELECT " + DETAIL_COLUMNS + ", " +
+            "p.id, p.name, p.sku, p.price, p.stock_quantity, p.description, p.expiry_date, p.image_url, " +
+            "p.category_id, p.created_at, " +
+            "s.id, s.name, s.contact_info, s.address, " +
+            "u.id, u.name, u.email, u.phone_number, u.role, u.created_at " +
+            "FROM transactions t " +
+            "LEFT JOIN products p ON p.id = t.product_id " +
+            "LEFT JOIN suppliers s ON s.id = t.supplier_id " +
+            "LEFT JOIN users u ON u.id = t.user_id " +
+            "WHERE t.id = ?";
+
+    // words shorter than this are not in the FULLTEXT indexes (innodb_ft_min_token_size)
+    @Value("${search.transactions.min-token-size:3}")
+    private int minTokenSize;
+
+    // CountMode.ESTIMATED: newest rows sampled for broad filters, and the matches needed to trust the sample
+    @Value("${counts.estimate.sample-rows:10000}")
+    private int estimateSampleRows;
+
+    @Value("${counts.estimate.min-sample-hits:100}")
+    private int estimateMinSampleHits;
+
+    // statements shared with the startup plan checks (SchemaMigrationRepositoryImpl)
+    static final String FIND_BY_MONTH_SQL = "SELECT " + LIST_COLUMNS + " FROM transactions t WHERE t.created_at >= ? AND t.created_at < ?";
+    static final String SUMMARIZE_DAILY_SQL = "SELECT DAY(created_at) AS day, COUNT(*) AS txn_count, " +
+            "COALESCE(SUM(total_products), 0) AS units, " +
+            "COALESCE(SUM(CASE WHEN transaction_type = 'SALE' THEN total_price ELSE -total_price END), 0) AS net_amount " +
+            "FROM transactions " +
+            "WHERE created_at >= ? AND created_at < ? AND transaction_type <> 'RETURN_TO_SUPPLIER' " +
+            "GROUP BY DAY(created_at)";
+
+    private static final String INSERT_SQL = "INSERT INTO transactions (total_products, total_price, transaction_type, status, description, note, product_id, user_id, supplier_id, created_at, update_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Insert a ledger row and add it to the transaction rollups in the same database transaction.
+     */
     @Override
+    @Transactional
     public Transaction save(Transaction transaction) {
-        String sql = "INSERT INTO transactions (total_products, total_price, transaction_type, status, description, note, product_id, user_id, supplier_id, created_at, update_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try(Connection conn= DatabaseConfig.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)){
-            ps.setInt(1, transaction.getTotalProducts());
-            ps.setBigDecimal(2, transaction.getTotalPrice());
-            ps.setString(3, transaction.getTransactionType().name());
-            ps.setString(4, transaction.getStatus().name());
-            ps.setString(5, transaction.getDescription());
-            ps.setString(6, transaction.getNote());
-            if (transaction.getProductId() != null) {
-                ps.setLong(7, transaction.getProductId());
-            } else {
-                ps.setNull(7, java.sql.Types.BIGINT);
+        try(Connection conn= dataSource.getConnection()){
+            Transaction saved = insertTransaction(conn, transaction);
+            if (saved != null) {
+                transactionRollupRepository.record(saved);
+                recordSales(List.of(saved));
+                tableVersionRepository.bump(TABLE);
             }
+            return saved;
+        }catch (SQLException e){
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
 
-            if (transaction.getUserId() != null) {
-                ps.setLong(8, transaction.getUserId());
-            } else {
-                ps.setNull(8, java.sql.Types.BIGINT);
-            }
+    /**
+     * Move stock and write the ledger row in one database transaction:
+     * a conditional stock update, the ledger insert and the rollup upsert share one connection.
+     * @param stockDelta positive for purchases, negative for sales and returns
+     * @throws InsufficientStockException when a decrement would take stock below zero
+     */
+    @Override
+    @Transactional
+    public Transaction saveWithStockMovement(Transaction transaction, int stockDelta) {
+        if (!productRepository.adjustStock(transaction.getProductId(), stockDelta)) {
+            throw new InsufficientStockException("Insufficient Stock For Product: " + transaction.getProductId());
+        }
+        Transaction saved = save(transaction);
+        if (saved == null) {
+            throw new IllegalStateException("Creating transaction failed, no ID obtained.");
+        }
+        return saved;
+    }
 
-            if (transaction.getSupplierId() != null) {
-                ps.setLong(9, transaction.getSupplierId());
-            } else {
-                ps.setNull(9, java.sql.Types.BIGINT);
+    /**
+     * Insert many ledger rows with one JDBC batch (a single multi-row INSERT once the driver
+     * rewrites it) and fold them into the rollups, in the caller's transaction.
+     * @return the same transactions with their generated ids
+     */
+    @Override
+    @Transactional
+    public List<Transaction> saveAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Transaction transaction : transactions) {
+                bindInsert(ps, transaction, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            ResultSet generatedKeys = ps.getGeneratedKeys();
+            for (Transaction transaction : transactions) {
+                if (generatedKeys.next()) {
+                    transaction.setId(generatedKeys.getLong(1));
+                }
+                transaction.setCreatedAt(now);
+                transaction.setUpdateAt(now);
             }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        transactionRollupRepository.recordAll(transactions);
+        recordSales(transactions);
+        tableVersionRepository.bump(TABLE);
+        return transactions;
+    }
+
+    // feeds the sales ranking of the product picker suggestions (applied after commit)
+    private void recordSales(List<Transaction> transactions) {
+        Map<Long, Long> unitsByProduct = transactions.stream()
+                .filter(t -> t.getTransactionType() == TransactionType.SALE && t.getProductId() != null)
+                .collect(Collectors.groupingBy(Transaction::getProductId,
+                        Collectors.summingLong(Transaction::getTotalProducts)));
+        if (!unitsByProduct.isEmpty()) {
+            productSuggestRepository.recordSales(unitsByProduct);
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, Transaction transaction, LocalDateTime now) throws SQLException {
+        ps.setInt(1, transaction.getTotalProducts());
+        ps.setBigDecimal(2, transaction.getTotalPrice());
+        ps.setString(3, transaction.getTransactionType().name());
+        ps.setString(4, transaction.getStatus().name());
+        ps.setString(5, transaction.getDescription());
+        ps.setString(6, transaction.getNote());
+        if (transaction.getProductId() != null) {
+            ps.setLong(7, transaction.getProductId());
+        } else {
+            ps.setNull(7, java.sql.Types.BIGINT);
+        }
+
+        if (transaction.getUserId() != null) {
+            ps.setLong(8, transaction.getUserId());
+        } else {
+            ps.setNull(8, java.sql.Types.BIGINT);
+        }
+
+        if (transaction.getSupplierId() != null) {
+            ps.setLong(9, transaction.getSupplierId());
+        } else {
+            ps.setNull(9, java.sql.Types.BIGINT);
+        }
+        ps.setTimestamp(10, Timestamp.valueOf(now));
+        ps.setTimestamp(11, Timestamp.valueOf(now));
+    }
+
+    private Transaction insertTransaction(Connection conn, Transaction transaction) throws SQLException {
+        try(PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)){
             LocalDateTime now = LocalDateTime.now();
-            ps.setTimestamp(10, Timestamp.valueOf(now));
-            ps.setTimestamp(11, Timestamp.valueOf(now));
+            bindInsert(ps, transaction, now);
             int rowsAffected = ps.executeUpdate();
             if (rowsAffected > 0) {
                 ResultSet generatedKeys = ps.getGeneratedKeys();
                 if (generatedKeys.next()) {
                     transaction.setId(generatedKeys.getLong(1));
+                    transaction.setCreatedAt(now);
                     transaction.setUpdateAt(now);
                     return transaction;
                 }
             }
-        }catch (Exception e){
-            e.printStackTrace();
         }
         return null;
     }
@@ -76,7 +231,7 @@ public class TransactionRepositoryImpl implements TransactionRepository {
     @Override
     public Transaction update(Transaction transaction) {
         String sql = "UPDATE transactions SET total_products = ?, total_price = ?, transaction_type = ?, status = ?, description = ?, note = ?, product_id = ?, user_id = ?, supplier_id = ?, update_at = ? WHERE id = ?";
-        try(Connection conn= DatabaseConfig.getConnection();
+        try(Connection conn= dataSource.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql)){
             ps.setInt(1, transaction.getTotalProducts());
             ps.setBigDecimal(2, transaction.getTotalPrice());
@@ -105,6 +260,7 @@ public class TransactionRepositoryImpl implements TransactionRepository {
             ps.setLong(11, transaction.getId());
             int rowsAffected = ps.executeUpdate();
             if (rowsAffected > 0) {
+                tableVersionRepository.bump(TABLE);
                 return transaction;
             }
         }catch (Exception e){
@@ -113,13 +269,15 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         return null;
     }
 
+    /**
+     * Load a transaction with its product, supplier and user in a single LEFT JOIN,
+     * so the detail view holds one connection instead of nesting three more lookups.
+     */
     @Override
     public Optional<Transaction> findById(Long id) {
 
-        String sql = "select * from transactions where id = ?";
-
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_BY_ID_SQL)) {
 
             ps.setLong(1, id);
             ResultSet rs = ps.executeQuery();
@@ -128,20 +286,7 @@ public class TransactionRepositoryImpl implements TransactionRepository {
                 return Optional.empty();
             }
 
-            // --- Build Transaction ---
-            Transaction transaction = mapToTransaction(rs);
-
-            // --- Build Product ---
-           transaction.setProduct(productRepository.findById(rs.getLong("product_id")).orElse(null));
-
-            // --- Build Supplier ---
-            transaction.setSupplier(supplierRepository.findById(rs.getLong("supplier_id")).orElse(null));
-
-
-            // --- Build User ---
-            transaction.setUser(userRepository.findById(rs.getLong("user_id")).orElse(null));
-
-            return Optional.of(transaction);
+            return Optional.of(mapToTransactionDetail(rs));
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -153,9 +298,9 @@ public class TransactionRepositoryImpl implements TransactionRepository {
 
     @Override
     public List<Transaction> searchTransactions( int page, int size, String searchText) {
-        String sql = "SELECT * FROM transactions WHERE description LIKE ? OR note LIKE ? LIMIT ? OFFSET ?";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM transactions t WHERE t.description LIKE ? OR t.note LIKE ? LIMIT ? OFFSET ?";
         List<Transaction> transactions = new java.util.ArrayList<>();
-        try(Connection conn= DatabaseConfig.getConnection();
+        try(Connection conn= dataSource.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql)){
             String likeSearchText = "%" + searchText + "%";
             ps.setString(1, likeSearchText);
@@ -174,138 +319,255 @@ public class TransactionRepositoryImpl implements TransactionRepository {
 
     @Override
     public List<Transaction> findAllByMonthAndYear(int month, int year) {
-        String sql = "SELECT * FROM transactions WHERE MONTH(created_at) = ? AND YEAR(created_at) = ?";
+        // half-open range on the raw column so an index on created_at can be used
+        String sql = FIND_BY_MONTH_SQL;
+        LocalDateTime from = LocalDateTime.of(year, month, 1, 0, 0);
         List<Transaction> transactions = new java.util.ArrayList<>();
-        try(Connection conn= DatabaseConfig.getConnection();
+        try(Connection conn= dataSource.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql)){
-            ps.setInt(1, month);
-            ps.setInt(2, year);
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(from.plusMonths(1)));
             ResultSet rs = ps.executeQuery();
             while (rs.next()){
-                Transaction transaction = mapToTransaction(rs);
-                // Populate product if productId exists
-                if (transaction.getProductId() != null) {
-                    transaction.setProduct(productRepository.findById(transaction.getProductId()).orElse(null));
-                }
-                transactions.add(transaction);
+                transactions.add(mapToTransaction(rs));
             }
         }catch (Exception e){
             e.printStackTrace();
         }
+        attachProducts(transactions);
         return transactions;
     }
 
+    /**
+     * Per-day dashboard series computed by the database over {@code [from, to)}.
+     * Returns are left out; sales count positive and purchases negative in {@code amount}.
+     * Days without transactions are not returned.
+     */
+    @Override
+    public List<DailyTransactionSummary> summarizeDaily(LocalDateTime from, LocalDateTime to) {
+        String sql = SUMMARIZE_DAILY_SQL;
+        List<DailyTransactionSummary> summaries = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                BigDecimal amount = rs.getBigDecimal("net_amount");
+                summaries.add(DailyTransactionSummary.builder()
+                        .day(rs.getInt("day"))
+                        .count(rs.getLong("txn_count"))
+                        .quantity(rs.getLong("units"))
+                        .amount(amount != null ? amount : BigDecimal.ZERO)
+                        .build());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return summaries;
+    }
 
+    /**
+     * Populate {@code product} on every transaction with a single batched lookup,
+     * so list queries cost the same number of round trips whatever the page size.
+     */
+    private void attachProducts(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = transactions.stream().map(Transaction::getProductId).toList();
+        Map<Long, Product> productsById = productRepository.findSummariesByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        transactions.forEach(t -> t.setProduct(productsById.get(t.getProductId())));
+    }
+
+
+
+    // a transaction with its own copies of the attached product, supplier and user
+    static Transaction copyOf(Transaction transaction) {
+        return transaction.toBuilder()
+                .product(transaction.getProduct() == null ? null : transaction.getProduct().toBuilder().build())
+                .supplier(transaction.getSupplier() == null ? null : transaction.getSupplier().toBuilder().build())
+                .user(transaction.getUser() == null ? null : transaction.getUser().toBuilder().build())
+                .build();
+    }
 
-    private Transaction mapToTransaction(ResultSet rs) throws SQLException {
+    /**
+     * Maps the {@link #LIST_COLUMNS} at the start of the row. Reads by position, and each
+     * timestamp once straight into a {@link LocalDateTime}.
+     */
+    static Transaction mapToTransaction(ResultSet rs) throws SQLException {
         Transaction transaction = new Transaction();
-        transaction.setId(rs.getLong("id"));
-        transaction.setTotalProducts(rs.getInt("total_products"));
-        transaction.setTotalPrice(rs.getBigDecimal("total_price"));
-        String type = rs.getString("transaction_type");
-        if (type != null) {
-            try {
-                transaction.setTransactionType(TransactionType.valueOf(type));
-            } catch (Exception ignore) {}
-        }
-
-        String status = rs.getString("status");
-        if (status != null) {
-            try {
-                transaction.setStatus(TransactionStatus.valueOf(status));
-            } catch (Exception ignore) {}
-        }
-        transaction.setDescription(rs.getString("description"));
-        transaction.setNote(rs.getString("note"));
-        transaction.setProductId(rs.getLong("product_id"));
-        transaction.setUserId(rs.getLong("user_id"));
-        transaction.setSupplierId(rs.getLong("supplier_id"));
-        if(rs.getTimestamp("created_at")!=null){
-            transaction.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        }
-        if(rs.getTimestamp("update_at")!=null){
-            transaction.setUpdateAt(rs.getTimestamp("update_at").toLocalDateTime());
-        }
-        else transaction.setUpdateAt(LocalDateTime.now());
+        transaction.setId(rs.getLong(1));
+        transaction.setTotalProducts(rs.getInt(2));
+        transaction.setTotalPrice(rs.getBigDecimal(3));
+        transaction.setTransactionType(TransactionType.fromName(rs.getString(4)));
+        transaction.setStatus(TransactionStatus.fromName(rs.getString(5)));
+        transaction.setProductId(rs.getLong(6));
+        transaction.setCreatedAt(rs.getObject(7, LocalDateTime.class));
         return transaction;
     }
 
-    @Override
-    public List<Transaction> findAllFilteredPaged(String filter, int page, int size) {
-
-        boolean noFilter = (filter == null || filter.isBlank());
-        List<Transaction> list = new ArrayList<>();
+    /**
+     * Maps the row of {@link #findById}: {@link #DETAIL_COLUMNS}, then product, supplier and user.
+     */
+    static Transaction mapToTransactionDetail(ResultSet rs) throws SQLException {
+        Transaction transaction = mapToTransaction(rs);
+        transaction.setDescription(rs.getString(LIST_COLUMN_COUNT + 1));
+        transaction.setNote(rs.getString(LIST_COLUMN_COUNT + 2));
+        transaction.setUpdateAt(rs.getObject(LIST_COLUMN_COUNT + 3, LocalDateTime.class));
+        transaction.setUserId(rs.getLong(LIST_COLUMN_COUNT + 4));
+        transaction.setSupplierId(rs.getLong(LIST_COLUMN_COUNT + 5));
+
+        int p = DETAIL_COLUMN_COUNT;
+        long productId = rs.getLong(p + 1);
+        if (!rs.wasNull()) {
+            Product product = new Product();
+            product.setId(productId);
+            product.setName(rs.getString(p + 2));
+            product.setSku(rs.getString(p + 3));
+            product.setPrice(rs.getBigDecimal(p + 4));
+            product.setStockQuantity(rs.getInt(p + 5));
+            product.setDescription(rs.getString(p + 6));
+            product.setExpiryDate(rs.getObject(p + 7, LocalDateTime.class));
+            product.setImageUrl(rs.getString(p + 8));
+            product.setCategoryId(rs.getLong(p + 9));
+            product.setCreatedAt(rs.getObject(p + 10, LocalDateTime.class));
+            transaction.setProduct(product);
+        }
 
-        String sql;
+        int s = p + 10;
+        long supplierId = rs.getLong(s + 1);
+        if (!rs.wasNull()) {
+            transaction.setSupplier(Supplier.builder()
+                    .id(supplierId)
+                    .name(rs.getString(s + 2))
+                    .contactInfo(rs.getString(s + 3))
+                    .address(rs.getString(s + 4))
+                    .build());
+        }
 
-        if (noFilter) {
-            sql = "SELECT * FROM transactions ORDER BY id DESC LIMIT ? OFFSET ?";
-        } else {
-            sql = "SELECT * FROM transactions t " +
-                    "JOIN products ON t.product_id = products.id " +
-                    "WHERE t.description LIKE ? OR t.note LIKE ? OR transaction_type LIKE ? OR t.status LIKE ? OR products.name LIKE ? " +
-                    "ORDER BY t.id DESC LIMIT ? OFFSET ? ";
+        // the password hash is not selected, the detail view has no use for it
+        int u = s + 4;
+        long userId = rs.getLong(u + 1);
+        if (!rs.wasNull()) {
+            User user = new User();
+            user.setId(userId);
+            user.setName(rs.getString(u + 2));
+            user.setEmail(rs.getString(u + 3));
+            user.setPhoneNumber(rs.getString(u + 4));
+            user.setRole(UserRole.valueOf(rs.getString(u + 5)));
+            user.setCreatedAt(rs.getObject(u + 6, LocalDateTime.class));
+            transaction.setUser(user);
         }
+        return transaction;
+    }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    /**
+     * Newest first. The structured fields of the filter become equality and range predicates on
+     * transactions, served by the composite indexes of the V5 migration.
+     * With {@link CountMode#EXACT} the total comes back with the rows ({@code COUNT(*) OVER()}),
+     * so one statement answers the page and its pagination metadata; later pages of the same
+     * filter take the total from the count cache.
+     */
+    @Override
+    public PagedResult<Transaction> findAllFilteredPaged(TransactionFilter filter, int page, int size, CountMode countMode) {
+        return queryCacheRepository.read(TABLE, CACHED_TABLES, "transactions page",
+                List.of(filter.countKey(), page, size, countMode), () -> loadFilteredPage(filter, page, size, countMode),
+                QueryCacheRepositoryImpl.pageCopied(TransactionRepositoryImpl::copyOf));
+    }
 
-            if (noFilter) {
-                ps.setInt(1, size);
-                ps.setInt(2, page * size);
-            } else {
-                String pattern = "%" + filter + "%";
-                ps.setString(1, pattern);
-                ps.setString(2, pattern);
-                ps.setString(3, pattern);
-                ps.setString(4, pattern);
-                ps.setString(5, pattern);
-                ps.setInt(6, size);
-                ps.setInt(7, page * size);
-            }
+    private PagedResult<Transaction> loadFilteredPage(TransactionFilter filter, int page, int size, CountMode countMode) {
+        String key = filter.countKey();
+        long version = tableVersionRepository.version(TABLE);
+        CachedCount cached = cachedTotal(key, countMode);
+        boolean exact = countMode == CountMode.EXACT && cached == null;
+        List<Object> params = new ArrayList<>();
+        String sql = pageSql(conditions(filter, params), exact);
+        params.add(exact ? size : size + 1);
+        params.add(page * size);
+        List<Transaction> list = new ArrayList<>();
+        long total = 0;
 
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindAll(ps, params);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                Transaction transaction = mapToTransaction(rs);
-                // Populate product if productId exists
-                if (transaction.getProductId() != null) {
-                    transaction.setProduct(productRepository.findById(transaction.getProductId()).orElse(null));
+                if (exact) {
+                    total = rs.getLong(LIST_COLUMN_COUNT + 1);
                 }
-                list.add(transaction);
+                list.add(mapToTransaction(rs));
             }
 
-        } catch (Exception e) {
+        } catch (SQLException e) {
             e.printStackTrace();
+            throw new RuntimeException(e);
         }
 
-        return list;
+        if (!exact) {
+            return toPage(list, page, size, true, totalFor(filter, key, version, countMode, cached));
+        }
+        // past the last page there is no row to carry the total
+        if (list.isEmpty() && page > 0) {
+            total = countFiltered(filter);
+        }
+        countCacheRepository.store(TABLE, key, version, total, false);
+        return toPage(list, page, size, false, new CachedCount(total, false));
     }
 
 
+    /**
+     * Keyset (seek) pagination: rows strictly older than {@code afterId}, newest first.
+     * Unlike LIMIT/OFFSET the primary key range scan cost does not grow with the page depth.
+     * @param afterId id of the last row of the previous page, null for the first page
+     */
     @Override
-    public long countFiltered(String filter) {
-
-        boolean noFilter = (filter == null || filter.isBlank());
-        String sql;
+    public List<Transaction> findAllFilteredAfter(TransactionFilter filter, Long afterId, int size) {
+        return queryCacheRepository.read(TABLE, CACHED_TABLES, "transactions after",
+                Arrays.asList(filter.countKey(), afterId, size), () -> loadFilteredAfter(filter, afterId, size),
+                QueryCacheRepositoryImpl.eachCopied(TransactionRepositoryImpl::copyOf));
+    }
 
-        if (noFilter) {
-            sql = "SELECT COUNT(*) FROM transactions";
-        } else {
-            sql = "SELECT COUNT(*) FROM transactions t " +
-                    "JOIN products ON t.product_id = products.id "+
-                    "WHERE t.description LIKE ? OR t.note LIKE ? OR products.name LIKE ? ";
+    private List<Transaction> loadFilteredAfter(TransactionFilter filter, Long afterId, int size) {
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = conditions(filter, params);
+        if (afterId != null) {
+            conditions.add("t.id < ?");
+            params.add(afterId);
         }
+        String sql = "SELECT " + LIST_COLUMNS + " FROM transactions t" + where(conditions) + " ORDER BY t.id DESC LIMIT ?";
+        params.add(size);
+        List<Transaction> list = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            if (!noFilter) {
-                String pattern = "%" + filter + "%";
-                ps.setString(1, pattern);
-                ps.setString(2, pattern);
-                ps.setString(3, pattern);
+            bindAll(ps, params);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                list.add(mapToTransaction(rs));
             }
 
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+
+        attachProducts(list);
+        return list;
+    }
+
+    @Override
+    public long countFiltered(TransactionFilter filter) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM transactions t" + where(conditions(filter, params));
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindAll(ps, params);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
                 return rs.getLong(1);
@@ -318,16 +580,303 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         return 0;
     }
 
+    /**
+     * Full-text search over description, note and product name, best match first.
+     * Needs the FULLTEXT indexes on {@code transactions(description, note)} and {@code products(name)}.
+     * Every word is required and matched as a prefix. Type and status are not matched by the text;
+     * the structured {@code type} and {@code status} fields narrow the hits like the other fields.
+     * The page and the hit count come from one statement ({@code COUNT(*) OVER()}).
+     * A filter with no word long enough to be indexed falls back to the LIKE scan.
+     */
+    @Override
+    public PagedResult<Transaction> searchRanked(TransactionFilter filter, int page, int size, CountMode countMode) {
+        return queryCacheRepository.read(TABLE, CACHED_TABLES, "transactions search",
+                List.of(filter.countKey(), page, size, countMode), () -> loadRankedPage(filter, page, size, countMode),
+                QueryCacheRepositoryImpl.pageCopied(TransactionRepositoryImpl::copyOf));
+    }
+
+    private PagedResult<Transaction> loadRankedPage(TransactionFilter filter, int page, int size, CountMode countMode) {
+        String booleanQuery = filter.hasText() ? toBooleanQuery(filter.getText()) : null;
+        if (booleanQuery == null) {
+            return findAllFilteredPaged(filter, page, size, countMode);
+        }
+
+        String key = filter.countKey();
+        long version = tableVersionRepository.version(TABLE);
+        CachedCount cached = cachedTotal(key, countMode);
+        boolean exact = countMode == CountMode.EXACT && cached == null;
+        List<Object> params = new ArrayList<>();
+        String from = rankedFrom(booleanQuery, filter, params);
+        int filterParams = params.size();
+        String sql = rankedPageSql(from, exact);
+        params.add(exact ? size : size + 1);
+        params.add(page * size);
+
+        List<Transaction> list = new ArrayList<>();
+        long total = 0;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindAll(ps, params);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                if (exact) {
+                    total = rs.getLong(LIST_COLUMN_COUNT + 1);
+                }
+                list.add(mapToTransaction(rs));
+            }
+
+            // past the last page there is no row to carry the total
+            if (exact && list.isEmpty() && page > 0) {
+                try (PreparedStatement count = conn.prepareStatement("SELECT COUNT(*) " + from)) {
+                    bindAll(count, params.subList(0, filterParams));
+                    ResultSet countRs = count.executeQuery();
+                    if (countRs.next()) {
+                        total = countRs.getLong(1);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+
+        if (!exact) {
+            return toPage(list, page, size, true, totalFor(filter, key, version, countMode, cached));
+        }
+        countCacheRepository.store(TABLE, key, version, total, false);
+        return toPage(list, page, size, false, new CachedCount(total, false));
+    }
+
+    /**
+     * Trims the look-ahead row of an uncounted page and attaches products.
+     * @param lookAhead the page was read with one extra row
+     * @param total null when there is no total to report
+     */
+    private PagedResult<Transaction> toPage(List<Transaction> rows, int page, int size, boolean lookAhead, CachedCount total) {
+        boolean hasNext = lookAhead ? rows.size() > size : (long) (page + 1) * size < total.count();
+        List<Transaction> list = rows.size() > size ? new ArrayList<>(rows.subList(0, size)) : rows;
+        attachProducts(list);
+        return total == null
+                ? new PagedResult<>(list, null, hasNext, false)
+                : new PagedResult<>(list, total.count(), hasNext, total.estimated());
+    }
+
+    // a cached total this count mode may use; null means the page query has to count (EXACT) or estimate
+    private CachedCount cachedTotal(String key, CountMode countMode) {
+        if (countMode == CountMode.NONE) {
+            return null;
+        }
+        CachedCount cached = countCacheRepository.find(TABLE, key);
+        return cached == null || (cached.estimated() && countMode == CountMode.EXACT) ? null : cached;
+    }
+
+    /**
+     * The total of a filter on its own, for callers that read it next to a page read with
+     * {@link CountMode#NONE}: cached, or counted (EXACT) or estimated (ESTIMATED) and then cached.
+     * @return null for {@link CountMode#NONE}
+     */
+    @Override
+    public CachedCount countTotal(TransactionFilter filter, CountMode countMode) {
+        if (countMode == CountMode.NONE) {
+            return null;
+        }
+        String key = filter.countKey();
+        long version = tableVersionRepository.version(TABLE);
+        CachedCount cached = cachedTotal(key, countMode);
+        if (cached != null) {
+            return cached;
+        }
+        CachedCount count = countMode == CountMode.ESTIMATED
+                ? estimateCount(filter)
+                : new CachedCount(countFiltered(filter), false);
+        countCacheRepository.store(TABLE, key, version, count.count(), count.estimated());
+        return count;
+    }
+
+    // total of a page read without COUNT(*) OVER()
+    private CachedCount totalFor(TransactionFilter filter, String key, long version, CountMode countMode, CachedCount cached) {
+        if (cached != null || countMode != CountMode.ESTIMATED) {
+            return cached;
+        }
+        CachedCount count = estimateCount(filter);
+        countCacheRepository.store(TABLE, key, version, count.count(), count.estimated());
+        return count;
+    }
+
+    /**
+     * Total for {@link CountMode#ESTIMATED}. Unfiltered it is InnoDB's row estimate. For the broad
+     * filters (text, type and status only) it is the share of matches among the newest
+     * {@code counts.estimate.sample-rows} rows scaled to that estimate, provided the sample holds
+     * enough matches to mean something. Anything narrower (ids, date ranges, rare matches) is an
+     * index range scan and is counted exactly.
+     */
+    private CachedCount estimateCount(TransactionFilter filter) {
+        if (filter.isEmpty()) {
+            return new CachedCount(countCacheRepository.estimateRows(TABLE), true);
+        }
+        boolean broad = filter.getProductId() == null && filter.getSupplierId() == null
+                && filter.getUserId() == null && filter.getFrom() == null && filter.getTo() == null;
+        if (broad) {
+            List<Object> params = new ArrayList<>();
+            String matches = String.join(" AND ", conditions(filter, params));
+            String sql = "SELECT COUNT(*) AS sampled, COALESCE(SUM(CASE WHEN " + matches + " THEN 1 ELSE 0 END), 0) AS matched " +
+                    "FROM transactions t WHERE t.id > (SELECT COALESCE(MAX(id), 0) FROM transactions) - ?";
+            params.add(estimateSampleRows);
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+                bindAll(ps, params);
+                ResultSet rs = ps.executeQuery();
+                if (rs.next()) {
+                    long sampled = rs.getLong("sampled");
+                    long matched = rs.getLong("matched");
+                    if (matched >= estimateMinSampleHits) {
+                        long rows = Math.max(countCacheRepository.estimateRows(TABLE), sampled);
+                        return new CachedCount(Math.round((double) matched / sampled * rows), true);
+                    }
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
+            }
+        }
+        return new CachedCount(countFiltered(filter), false);
+    }
+
+    /**
+     * One page of {@link #findAllFilteredPaged}, newest first, bound with the conditions' parameters,
+     * then the limit and offset.
+     */
+    static String pageSql(List<String> conditions, boolean exact) {
+        return "SELECT " + LIST_COLUMNS + (exact ? ", COUNT(*) OVER() AS total_rows" : "") +
+                " FROM transactions t" + where(conditions) +
+                " ORDER BY t.id DESC LIMIT ? OFFSET ?";
+    }
+
+    // the ranked hits joined to their rows and narrowed by the structured fields
+    static String rankedFrom(String booleanQuery, TransactionFilter filter, List<Object> params) {
+        return "FROM (" + rankedHitsSql(booleanQuery, params) + ") hits " +
+                "JOIN transactions t ON t.id = hits.id" + where(structuredConditions(filter, params));
+    }
+
+    // one page of searchRanked, bound with the parameters of rankedFrom, then the limit and offset
+    static String rankedPageSql(String from, boolean exact) {
+        return "SELECT " + LIST_COLUMNS + (exact ? ", COUNT(*) OVER() AS total_hits " : " ") + from +
+                " ORDER BY hits.score DESC, t.id DESC LIMIT ? OFFSET ?";
+    }
+
+    // one row per matching transaction id with its summed relevance
+    private static String rankedHitsSql(String booleanQuery, List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT id, SUM(score) AS score FROM (" +
+                "SELECT id, MATCH(description, note) AGAINST (? IN BOOLEAN MODE) AS score FROM transactions " +
+                "WHERE MATCH(description, note) AGAINST (? IN BOOLEAN MODE) " +
+                "UNION ALL " +
+                "SELECT t.id, MATCH(p.name) AGAINST (? IN BOOLEAN MODE) FROM products p " +
+                "JOIN transactions t ON t.product_id = p.id " +
+                "WHERE MATCH(p.name) AGAINST (? IN BOOLEAN MODE)");
+        for (int i = 0; i < 4; i++) {
+            params.add(booleanQuery);
+        }
+        return sql.append(") matched GROUP BY id").toString();
+    }
+
+    // text predicate (full-text when possible, LIKE otherwise) followed by the structured ones
+    List<String> conditions(TransactionFilter filter, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.hasText()) {
+            String booleanQuery = toBooleanQuery(filter.getText());
+            StringBuilder text = new StringBuilder("(");
+            if (booleanQuery != null) {
+                text.append("MATCH(t.description, t.note) AGAINST (? IN BOOLEAN MODE) " +
+                        "OR t.product_id IN (SELECT id FROM products WHERE MATCH(name) AGAINST (? IN BOOLEAN MODE))");
+                params.add(booleanQuery);
+                params.add(booleanQuery);
+            } else {
+                text.append("t.description LIKE ? OR t.note LIKE ? " +
+                        "OR t.product_id IN (SELECT id FROM products WHERE name LIKE ?)");
+                String pattern = "%" + filter.getText() + "%";
+                for (int i = 0; i < 3; i++) {
+                    params.add(pattern);
+                }
+            }
+            conditions.add(text.append(")").toString());
+        }
+        conditions.addAll(structuredConditions(filter, params));
+        return conditions;
+    }
+
+    static List<String> structuredConditions(TransactionFilter filter, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getType() != null) {
+            conditions.add("t.transaction_type = ?");
+            params.add(filter.getType().name());
+        }
+        if (filter.getStatus() != null) {
+            conditions.add("t.status = ?");
+            params.add(filter.getStatus().name());
+        }
+        if (filter.getProductId() != null) {
+            conditions.add("t.product_id = ?");
+            params.add(filter.getProductId());
+        }
+        if (filter.getSupplierId() != null) {
+            conditions.add("t.supplier_id = ?");
+            params.add(filter.getSupplierId());
+        }
+        if (filter.getUserId() != null) {
+            conditions.add("t.user_id = ?");
+            params.add(filter.getUserId());
+        }
+        if (filter.getFrom() != null) {
+            conditions.add("t.created_at >= ?");
+            params.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            conditions.add("t.created_at < ?");
+            params.add(Timestamp.valueOf(filter.getTo()));
+        }
+        return conditions;
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void bindAll(PreparedStatement ps, List<Object> params) throws SQLException {
+        int index = 1;
+        for (Object param : params) {
+            ps.setObject(index++, param);
+        }
+    }
+
+    /**
+     * "+smart* +phone*" for "smart phone": every indexable word required, matched as a prefix.
+     * Boolean-mode operators in the input are dropped with the other punctuation.
+     * @return null when no word is long enough to be in the index
+     */
+    private String toBooleanQuery(String filter) {
+        StringBuilder query = new StringBuilder();
+        for (String word : filter.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= minTokenSize) {
+                if (!query.isEmpty()) {
+                    query.append(' ');
+                }
+                query.append('+').append(word).append('*');
+            }
+        }
+        return query.isEmpty() ? null : query.toString();
+    }
+
     @Override
     public Transaction updateStatus(Long id, TransactionStatus status) {
         String sql = "UPDATE transactions SET status = ?, update_at = ? WHERE id = ?";
-        try(Connection conn= DatabaseConfig.getConnection();
+        try(Connection conn= dataSource.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql)){
             ps.setString(1, status.name());
             ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
             ps.setLong(3, id);
             int rowsAffected = ps.executeUpdate();
             if (rowsAffected > 0) {
+                tableVersionRepository.bump(TABLE);
                 return findById(id).orElse(null);
             }
         }catch (Exception e){
@@ -0,0 +1,190 @@
+package org.pdm.backend.repository.Impl;
+
+import lombok.RequiredArgsConstructor;
+import org.pdm.backend.enums.RollupGranularity;
+import org.pdm.backend.enums.TransactionType;
+import org.pdm.backend.model.Transaction;
+import org.pdm.backend.model.TransactionRollup;
+import org.pdm.backend.repository.TransactionRollupRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class TransactionRollupRepositoryImpl implements TransactionRollupRepository {
+
+    private final DataSource dataSource;
+
+    private static final String UPSERT_SQL = "INSERT INTO transaction_rollups " +
+            "(granularity, bucket_start, product_id, transaction_type, transaction_count, units, total_value) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + VALUES(transaction_count), " +
+            "units = units + VALUES(units), total_value = total_value + VALUES(total_value)";
+
+    // bucket expressions must match bucketStart() below
+    private static final String[][] REBUILD_BUCKETS = {
+            {"DAY", "DATE(created_at)"},
+            {"WEEK", "DATE_SUB(DATE(created_at), INTERVAL WEEKDAY(created_at) DAY)"},
+            {"MONTH", "DATE_SUB(DATE(created_at), INTERVAL DAYOFMONTH(created_at) - 1 DAY)"}
+    };
+
+    private record BucketKey(RollupGranularity granularity, LocalDate bucketStart, long productId, TransactionType type) {
+    }
+
+    /**
+     * Add one ledger row to its day, week and month buckets.
+     * Joins the caller's transaction so it commits or rolls back with the ledger insert.
+     */
+    @Override
+    @Transactional
+    public void record(Transaction transaction) {
+        recordAll(List.of(transaction));
+    }
+
+    /**
+     * Fold many ledger rows into their buckets in memory first, then send one upsert
+     * per touched bucket as a single JDBC batch (rewritten into one multi-row statement by the driver).
+     */
+    @Override
+    @Transactional
+    public void recordAll(List<Transaction> transactions) {
+        Map<BucketKey, TransactionRollup> deltas = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getProductId() == null || transaction.getTransactionType() == null) {
+                continue;
+            }
+            LocalDate day = transaction.getCreatedAt().toLocalDate();
+            long units = transaction.getTotalProducts() != null ? transaction.getTotalProducts() : 0;
+            BigDecimal value = transaction.getTotalPrice() != null ? transaction.getTotalPrice() : BigDecimal.ZERO;
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                BucketKey key = new BucketKey(granularity, bucketStart(granularity, day),
+                        transaction.getProductId(), transaction.getTransactionType());
+                TransactionRollup delta = deltas.computeIfAbsent(key, k -> TransactionRollup.builder()
+                        .granularity(k.granularity())
+                        .bucketStart(k.bucketStart())
+                        .productId(k.productId())
+                        .transactionType(k.type())
+                        .totalValue(BigDecimal.ZERO)
+                        .build());
+                delta.setTransactionCount(delta.getTransactionCount() + 1);
+                delta.setUnits(delta.getUnits() + units);
+                delta.setTotalValue(delta.getTotalValue().add(value));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+            for (TransactionRollup delta : deltas.values()) {
+                ps.setString(1, delta.getGranularity().name());
+                ps.setDate(2, Date.valueOf(delta.getBucketStart()));
+                ps.setLong(3, delta.getProductId());
+                ps.setString(4, delta.getTransactionType().name());
+                ps.setLong(5, delta.getTransactionCount());
+                ps.setLong(6, delta.getUnits());
+                ps.setBigDecimal(7, delta.getTotalValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public List<TransactionRollup> findRollups(RollupGranularity granularity, LocalDate from, LocalDate to, Long productId) {
+        List<TransactionRollup> list = new ArrayList<>();
+        // granularity is the one asked for, so it is not read back
+        String sql = "SELECT bucket_start, product_id, transaction_type, transaction_count, units, total_value " +
+                "FROM transaction_rollups WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?" +
+                (productId != null ? " AND product_id = ?" : "") +
+                " ORDER BY bucket_start, product_id, transaction_type";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, granularity.name());
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            if (productId != null) {
+                ps.setLong(4, productId);
+            }
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                list.add(mapRowToRollup(rs, granularity));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    /**
+     * Recompute every bucket of the products with {@code product_id % partitions == partition}
+     * from the raw ledger. Partitions cover disjoint products, so they can run in parallel
+     * without contending on the same rollup rows.
+     * @return number of rollup rows written
+     */
+    @Override
+    @Transactional
+    public long rebuildPartition(int partition, int partitions) {
+        String deleteSql = "DELETE FROM transaction_rollups WHERE MOD(product_id, ?) = ?";
+        long written = 0;
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
+                ps.setInt(1, partitions);
+                ps.setInt(2, partition);
+                ps.executeUpdate();
+            }
+            for (String[] bucket : REBUILD_BUCKETS) {
+                String insertSql = "INSERT INTO transaction_rollups " +
+                        "(granularity, bucket_start, product_id, transaction_type, transaction_count, units, total_value) " +
+                        "SELECT '" + bucket[0] + "', " + bucket[1] + ", product_id, transaction_type, " +
+                        "COUNT(*), COALESCE(SUM(total_products), 0), COALESCE(SUM(total_price), 0) " +
+                        "FROM transactions " +
+                        "WHERE product_id IS NOT NULL AND transaction_type IS NOT NULL AND MOD(product_id, ?) = ? " +
+                        "GROUP BY " + bucket[1] + ", product_id, transaction_type";
+                try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
+                    ps.setInt(1, partitions);
+                    ps.setInt(2, partition);
+                    written += ps.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return written;
+    }
+
+    static LocalDate bucketStart(RollupGranularity granularity, LocalDate day) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private TransactionRollup mapRowToRollup(ResultSet rs, RollupGranularity granularity) throws SQLException {
+        return TransactionRollup.builder()
+                .granularity(granularity)
+                .bucketStart(rs.getObject(1, LocalDate.class))
+                .productId(rs.getLong(2))
+                .transactionType(TransactionType.fromName(rs.getString(3)))
+                .transactionCount(rs.getLong(4))
+                .units(rs.getLong(5))
+                .totalValue(rs.getBigDecimal(6))
+                .build();
+    }
+}
@@ -1,37 +1,52 @@
 package org.pdm.backend.repository.Impl;
 
+import lombok.RequiredArgsConstructor;
 import org.pdm.backend.enums.UserRole;
 import org.pdm.backend.model.User;
+import org.pdm.backend.repository.TableVersionRepository;
 import org.pdm.backend.repository.UserRepository;
-import org.pdm.backend.security.DatabaseConfig;
 import org.springframework.stereotype.Repository;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import javax.sql.DataSource;
+
 @Repository
+@RequiredArgsConstructor
 public class UserRepositoryImpl implements UserRepository {
 
+    private final DataSource dataSource;
+    private final TableVersionRepository tableVersionRepository;
+
+    private static final String TABLE = "users";
+
+    // the user list never needs the password hash; lookups by id and email (login) do
+    static final String LIST_COLUMNS = "id, name, email, phone_number, role, created_at";
+    static final String DETAIL_COLUMNS = LIST_COLUMNS + ", password";
+    static final String FIND_BY_EMAIL_SQL = "SELECT " + DETAIL_COLUMNS + " FROM users WHERE email = ?"; // also plan-checked
+
     /**
      * Find a user by id.
      * @param userId - user id
-     * {@code SELECT * FROM users WHERE id = ?} your query, in this case is to find a user by id, ? is a placeholder for the value to be inserted
-     * {@code Connection conn = DatabaseConfig.getConnection();} get a live connection to database
+     * {@code SELECT ... FROM users WHERE id = ?} your query, in this case is to find a user by id, ? is a placeholder for the value to be inserted
+     * {@code Connection conn = dataSource.getConnection();} borrow a live connection from the pool
      * {@code ps.setLong(1, userId);} set the value of the first ? placeholder to the value of userId
      *
      * @return convert the result set to a user object
      */
     @Override
     public Optional<User> findById(Long userId) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-        try(Connection conn= DatabaseConfig.getConnection();){
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM users WHERE id = ?";
+        try(Connection conn= dataSource.getConnection();){
             PreparedStatement ps = conn.prepareStatement(sql);
             ps.setLong(1, userId);
             ResultSet rs = ps.executeQuery();
             if(rs.next()){
-                return Optional.of(mapRowToUsers(rs));
+                return Optional.of(mapRowToUsers(rs, true));
             }
         }catch (Exception e){
             e.printStackTrace();
@@ -41,13 +56,13 @@ public class UserRepositoryImpl implements UserRepository {
 
     @Override
     public Optional<User> findByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
-        try(Connection conn= DatabaseConfig.getConnection();){
+        String sql = FIND_BY_EMAIL_SQL;
+        try(Connection conn= dataSource.getConnection();){
             PreparedStatement ps = conn.prepareStatement(sql);
             ps.setString(1, email);
             ResultSet rs = ps.executeQuery();
             if(rs.next()){
-                return Optional.of(mapRowToUsers(rs));
+                return Optional.of(mapRowToUsers(rs, true));
             }
         }catch (Exception e){
             e.printStackTrace();
@@ -58,12 +73,12 @@ public class UserRepositoryImpl implements UserRepository {
     @Override
     public List<User> findAll() {
         List<User> list = new ArrayList<>();
-        String sql = "SELECT * FROM users";
-        try (Connection conn = DatabaseConfig.getConnection();
+        String sql = "SELECT " + LIST_COLUMNS + " FROM users";
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                list.add(mapRowToUsers(rs));
+                list.add(mapRowToUsers(rs, false));
             } // khi nào vẫn còn row thì vẫn add vào list
         } catch (SQLException e) {
             e.printStackTrace();
@@ -74,11 +89,13 @@ public class UserRepositoryImpl implements UserRepository {
     @Override
     public Long deleteById(Long id) {
         String sql = "DELETE FROM users WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)){
 
             ps.setLong(1, id);
             ps.executeUpdate();
+            tableVersionRepository.bump(TABLE);
+            tableVersionRepository.bump("transactions"); // their user_id is set to NULL
             return 1L;
         }catch (SQLException e){
             e.printStackTrace();
@@ -89,7 +106,7 @@ public class UserRepositoryImpl implements UserRepository {
     @Override
     public User save(User userToSave) {
         String sql = "INSERT INTO users (name, email, password, phone_number, role,created_at) VALUES (?, ?, ?, ?, ?,?)";
-        try (Connection conn = DatabaseConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, userToSave.getName());
             ps.setString(2, userToSave.getEmail());
@@ -102,6 +119,7 @@ public class UserRepositoryImpl implements UserRepository {
             ResultSet generatedKeys = ps.getGeneratedKeys();
             if (generatedKeys.next()) {
                 userToSave.setId(generatedKeys.getLong(1));
+                tableVersionRepository.bump(TABLE);
                 return userToSave;
             }
             else throw new SQLException("Creating user failed, no ID obtained.");
@@ -114,7 +132,7 @@ public class UserRepositoryImpl implements UserRepository {
     @Override
     public User update(User userToUpdate) {
         String sql = "UPDATE users SET name = ?, email = ?, password = ?, phone_number = ?, role = ? WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, userToUpdate.getName());
             ps.setString(2, userToUpdate.getEmail());
@@ -123,6 +141,7 @@ public class UserRepositoryImpl implements UserRepository {
             ps.setString(5, userToUpdate.getRole().toString());
             ps.setLong(6, userToUpdate.getId());
             ps.executeUpdate();
+            tableVersionRepository.bump(TABLE);
             return userToUpdate;
 
 
@@ -138,16 +157,18 @@ public class UserRepositoryImpl implements UserRepository {
         return false;
     }
 
-    private User mapRowToUsers(ResultSet rs) throws SQLException {
+    // reads LIST_COLUMNS by position, then the password when DETAIL_COLUMNS were selected
+    static User mapRowToUsers(ResultSet rs, boolean withPassword) throws SQLException {
         User user = new User();
-        user.setId(rs.getLong("id"));
-        user.setName(rs.getString("name"));
-        user.setEmail(rs.getString("email"));
-        user.setPassword(rs.getString("password"));
-        user.setRole(UserRole.valueOf(rs.getString("role")));
-        user.setPhoneNumber(rs.getString("phone_number"));
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) user.setCreatedAt(ts.toLocalDateTime());
+        user.setId(rs.getLong(1));
+        user.setName(rs.getString(2));
+        user.setEmail(rs.getString(3));
+        user.setPhoneNumber(rs.getString(4));
+        user.setRole(UserRole.valueOf(rs.getString(5)));
+        user.setCreatedAt(rs.getObject(6, LocalDateTime.class));
+        if (withPassword) {
+            user.setPassword(rs.getString(7));
+        }
         return user;
     }
 }
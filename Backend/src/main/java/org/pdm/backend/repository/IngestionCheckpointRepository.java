@@ -0,0 +1,9 @@
+package org.pdm.backend.repository;
+
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IngestionCheckpointRepository {
+    long findAppliedSequence();
+    void saveAppliedSequence(long sequence);
+}
@@ -0,0 +1,20 @@
+package org.pdm.backend.repository;
+
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IngestionLogRepository {
+
+    record LoggedEntry(long sequence, byte[] payload) {
+    }
+
+    void open(long sequenceFloor);
+    long append(byte[] payload);
+    List<LoggedEntry> readAfter(long sequence, int max);
+    void truncateThrough(long sequence);
+    long lastSequence();
+    long durableSequence();
+    int segmentCount();
+}
@@ -0,0 +1,13 @@
+package org.pdm.backend.repository;
+
+import org.pdm.backend.model.IngestionOutcome;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IngestionOutcomeRepository {
+    void saveAll(List<IngestionOutcome> outcomes);
+    Optional<IngestionOutcome> findBySequence(long sequence);
+}
@@ -1,8 +1,11 @@
 package org.pdm.backend.repository;
 
 import org.pdm.backend.model.Product;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,11 @@ public interface ProductRepository {
     Product update(Product productToUpdate);
     List<Product> findAll(Long categoryId);
     Optional<Product> findById(Long id);
+    List<Product> findAllByIds(Collection<Long> ids);
+    List<Product> findSummariesByIds(Collection<Long> ids);
     List<Product> findByNameContainingOrDescriptionContaining(String name, String description);
     Long deleteById(Long id);
+    List<Long> deleteByCategoryId(Long categoryId);
+    boolean adjustStock(Long productId, int delta);
+    Set<Long> adjustStockBatch(Map<Long, Integer> deltas);
 }
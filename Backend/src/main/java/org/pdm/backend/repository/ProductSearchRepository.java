@@ -0,0 +1,18 @@
+package org.pdm.backend.repository;
+
+import org.pdm.backend.model.Product;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductSearchRepository {
+
+    record Hits(List<Long> productIds, long total) {
+    }
+
+    Hits search(String query, int page, int size);
+    void index(Product product);
+    void remove(Long productId);
+    void rebuild();
+}
@@ -0,0 +1,17 @@
+package org.pdm.backend.repository;
+
+import org.pdm.backend.model.Product;
+import org.pdm.backend.model.ProductSuggestion;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public interface ProductSuggestRepository {
+    List<ProductSuggestion> suggest(String prefix, int limit);
+    void index(Product product);
+    void remove(Long productId);
+    void recordSales(Map<Long, Long> unitsByProduct);
+    void rebuild();
+}
@@ -0,0 +1,23 @@
+package org.pdm.backend.repository;
+
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+@Repository
+public interface QueryCacheRepository {
+
+    /**
+     * Read-through cache of query results, keyed by statement and parameters.
+     * Returns the cached result while none of {@code tables} has been written since it was loaded,
+     * otherwise runs {@code loader} and caches what it returns. Reads inside a transaction bypass
+     * the cache, since their snapshot may be older than the table versions.
+     * @param repository opt-in name, listed in {@code query-cache.repositories} to enable caching
+     * @param tables every table the result is read from
+     * @param copy deep copy of a result, so no caller gets the instance held in the cache
+     */
+    <T> T read(String repository, List<String> tables, String statement, List<?> params, Supplier<T> loader,
+               UnaryOperator<T> copy);
+}
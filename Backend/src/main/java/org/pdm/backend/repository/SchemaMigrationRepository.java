@@ -0,0 +1,14 @@
+package org.pdm.backend.repository;
+
+import org.pdm.backend.model.QueryPlanCheck;
+import org.pdm.backend.model.SchemaMigration;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SchemaMigrationRepository {
+    List<SchemaMigration> migrate();
+    List<SchemaMigration> findAll();
+    List<QueryPlanCheck> checkQueryPlans();
+}
@@ -3,6 +3,7 @@ package org.pdm.backend.repository;
 import org.pdm.backend.model.Supplier;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +12,7 @@ import java.util.Optional;
 public interface SupplierRepository {
     Optional<Supplier> findById(Long id);
     List<Supplier> findAll();
+    List<Supplier> findAllByIds(Collection<Long> ids);
     Supplier save(Supplier supplierToSave);
     Supplier update(Supplier supplierToUpdate);
     Long deleteById(Long id);
@@ -0,0 +1,14 @@
+package org.pdm.backend.repository;
+
+import org.pdm.backend.model.Supplier;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SupplierSearchRepository {
+    List<Long> search(String input);
+    void index(Supplier supplier);
+    void remove(Long supplierId);
+    void rebuild();
+}
@@ -0,0 +1,18 @@
+package org.pdm.backend.repository;
+
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TableVersionRepository {
+
+    /**
+     * Current version of a table; read it before loading anything that is cached against it.
+     */
+    long version(String table);
+
+    /**
+     * Moves the table to a new version once the surrounding transaction commits, which retires
+     * every count and query result cached against the old one.
+     */
+    void bump(String table);
+}
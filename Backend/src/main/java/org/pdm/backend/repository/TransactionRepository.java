@@ -1,21 +1,33 @@
 package org.pdm.backend.repository;
 
+import org.pdm.backend.enums.CountMode;
 import org.pdm.backend.enums.TransactionStatus;
+import org.pdm.backend.model.DailyTransactionSummary;
+import org.pdm.backend.model.PagedResult;
+import org.pdm.backend.repository.CountCacheRepository.CachedCount;
 import org.pdm.backend.model.Transaction;
+import org.pdm.backend.wrappers.TransactionFilter;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository {
     Transaction save(Transaction transaction);
+    Transaction saveWithStockMovement(Transaction transaction, int stockDelta);
+    List<Transaction> saveAll(List<Transaction> transactions);
     Transaction update(Transaction transaction);
     Optional<Transaction> findById(Long id);
     List<Transaction> findAllByMonthAndYear(int month, int year);
+    List<DailyTransactionSummary> summarizeDaily(LocalDateTime from, LocalDateTime to);
     List<Transaction> searchTransactions( int page, int size,String searchText);
-    List<Transaction> findAllFilteredPaged(String filter, int page, int size);
-    long countFiltered(String filter);
+    PagedResult<Transaction> findAllFilteredPaged(TransactionFilter filter, int page, int size, CountMode countMode);
+    long countFiltered(TransactionFilter filter);
+    CachedCount countTotal(TransactionFilter filter, CountMode countMode);
+    PagedResult<Transaction> searchRanked(TransactionFilter filter, int page, int size, CountMode countMode);
+    List<Transaction> findAllFilteredAfter(TransactionFilter filter, Long afterId, int size);
 
     Transaction updateStatus(Long id, TransactionStatus status);
 
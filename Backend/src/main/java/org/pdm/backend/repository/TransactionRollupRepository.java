@@ -0,0 +1,17 @@
+package org.pdm.backend.repository;
+
+import org.pdm.backend.enums.RollupGranularity;
+import org.pdm.backend.model.Transaction;
+import org.pdm.backend.model.TransactionRollup;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TransactionRollupRepository {
+    void record(Transaction transaction);
+    void recordAll(List<Transaction> transactions);
+    List<TransactionRollup> findRollups(RollupGranularity granularity, LocalDate from, LocalDate to, Long productId);
+    long rebuildPartition(int partition, int partitions);
+}
@@ -1,5 +1,6 @@
 package org.pdm.backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,7 @@ public class AuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final CustomUserDetailsService customUserDetailsService;
+    private final AuthUserCache authUserCache;
 
 
     @Override
@@ -32,12 +34,23 @@ public class AuthFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
 
         if (token != null) {
-            String email = jwtUtils.getUsernameFromToken(token);
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+            UserDetails userDetails = authUserCache.get(token);
 
-            if (StringUtils.hasText(email) && jwtUtils.isTokeValid(token, userDetails)) {
-                log.info("Valid Token, {}", email);
+            if (userDetails == null) {
+                // one signature check yields subject and expiry; the user is loaded once per cache entry
+                Claims claims = jwtUtils.parseClaims(token);
+                String email = claims.getSubject();
+                if (StringUtils.hasText(email)) {
+                    AuthUser loaded = customUserDetailsService.loadUserByUsername(email);
+                    if (jwtUtils.isTokeValid(claims, loaded)) {
+                        log.info("Valid Token, {}", email);
+                        authUserCache.put(token, loaded, claims.getExpiration().getTime());
+                        userDetails = loaded;
+                    }
+                }
+            }
 
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -0,0 +1,72 @@
+package org.pdm.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verified token -> principal, so a repeat request skips both the signature check and the user lookup.
+ * Entries live for the configured TTL but never past the token's own expiry. Any change to a user
+ * must call {@link #evictUser} so the next request reloads it.
+ */
+@Component
+public class AuthUserCache {
+
+    private record Entry(AuthUser authUser, long expiresAtMillis) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${auth.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${auth.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    public AuthUser get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.authUser();
+    }
+
+    public void put(String token, AuthUser authUser, long tokenExpiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear(); // still full of live entries: start over rather than grow
+            }
+        }
+        entries.put(token, new Entry(authUser, Math.min(now + ttlSeconds * 1000L, tokenExpiresAtMillis)));
+    }
+
+    /**
+     * Drops every cached principal of this user now, and again once the surrounding transaction
+     * commits, so a request racing the update cannot put the old row back.
+     */
+    public void evictUser(Long userId) {
+        evictNow(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long userId) {
+        entries.values().removeIf(entry -> userId.equals(entry.authUser().getUser().getId()));
+    }
+}
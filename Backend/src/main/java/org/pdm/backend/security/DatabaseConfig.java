@@ -1,40 +1,59 @@
 package org.pdm.backend.security;
 
 import com.zaxxer.hikari.HikariDataSource;
-import lombok.Getter;
+import org.pdm.backend.repository.SchemaMigrationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
+import javax.sql.DataSource;
 
-@Getter
+@Configuration
 public class DatabaseConfig {
-    private static final String URL = "jdbc:mysql://localhost:3306/inventory_db";
-    private static final String USER = "root";
-    private static final String PASSWORD = "0000";
 
     /**
-     * class exists to avoid rewriting connection setup in every repository
-     * @return Connection object that represents a live link to the database.
-     * @throws SQLException in case of connection failure.
+     * The connection pool itself.
+     * URL and credentials come from {@code spring.datasource.*}, pool sizing, leak detection and
+     * driver statement caching from {@code spring.datasource.hikari.*} in application.properties.
+     * The pool is closed by Spring on shutdown.
      */
-    public static Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(URL, USER, PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
-        }
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource poolDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
     }
 
-    private static  final HikariDataSource dataSource = new HikariDataSource();
-    static {
-        dataSource.setJdbcUrl(URL);
-        dataSource.setUsername(USER);
-        dataSource.setPassword(PASSWORD);
+    /**
+     * The one DataSource every repository gets, so none of them sets up its own connections.
+     * Inside a {@code @Transactional} method {@code getConnection()} hands back the connection bound
+     * to the current transaction and {@code close()} leaves it open, so every repository call of one
+     * service method shares a single pooled connection and commits once.
+     * Outside a transaction it behaves like the plain pool.
+     * Pending schema migrations are applied first, so no repository ever sees an older schema.
+     * @return the DataSource injected into every repository.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource poolDataSource,
+                                 SchemaMigrationRepository schemaMigrationRepository,
+                                 @Value("${migrations.enabled:true}") boolean migrationsEnabled) {
+        if (migrationsEnabled) {
+            schemaMigrationRepository.migrate();
+        }
+        return new TransactionAwareDataSourceProxy(poolDataSource);
     }
-    public static HikariDataSource getDataSource() {
-        return dataSource;
+
+    @Bean
+    public PlatformTransactionManager transactionManager(HikariDataSource poolDataSource) {
+        return new DataSourceTransactionManager(poolDataSource);
     }
 
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package org.pdm.backend.security;
 
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +14,6 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.function.Function;
 
 @Service
 @Slf4j
@@ -21,6 +21,7 @@ public class JwtUtils {
 
     private static final long EXPIRATION_TIME_IN_MILLISEC = 1000L * 60L * 60L * 24L * 30L * 6L; //expires in 6 months in milleces
     private SecretKey key;
+    private JwtParser parser; // immutable and thread-safe, built once
 
     @Value("${secreteJwtString}")
     private String secreteJwtString;
@@ -30,6 +31,7 @@ public class JwtUtils {
     private void init() {
         byte[] keyByte = secreteJwtString.getBytes(StandardCharsets.UTF_8);
         this.key = new SecretKeySpec(keyByte, "HmacSHA256");
+        this.parser = Jwts.parser().verifyWith(key).build();
     }
 
     public String generateToken(String email) {
@@ -41,21 +43,20 @@ public class JwtUtils {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return extractClaims(token, Claims::getSubject);
-    }
-
-    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+    /**
+     * Verifies the signature once and returns every claim.
+     * Throws a JwtException for a tampered, malformed or expired token.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    public boolean isTokeValid(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokeExpired(token));
+    public String getUsernameFromToken(String token) {
+        return parseClaims(token).getSubject();
     }
 
-    private boolean isTokeExpired(String token) {
-        return extractClaims(token, Claims::getExpiration).before(new Date());
+    public boolean isTokeValid(Claims claims, UserDetails userDetails) {
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
 
@@ -1,5 +1,6 @@
 package org.pdm.backend.service;
 
+import org.pdm.backend.enums.CountMode;
 import org.pdm.backend.model.Category;
 import org.pdm.backend.wrappers.Response;
 
@@ -7,7 +8,7 @@ public interface CategoryService {
 
     Response createCategory(Category category);
 
-    Response getAllCategories(int page, int limit, String search);
+    Response getAllCategories(int page, int limit, String search, CountMode countMode);
 
     Response getCategoryById(Long id);
 
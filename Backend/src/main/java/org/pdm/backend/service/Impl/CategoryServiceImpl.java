@@ -2,12 +2,18 @@ package org.pdm.backend.service.Impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.pdm.backend.enums.CountMode;
 import org.pdm.backend.exception.NotFoundException;
 import org.pdm.backend.model.Category;
+import org.pdm.backend.model.PagedResult;
 import org.pdm.backend.repository.CategoryRepository;
+import org.pdm.backend.repository.ProductRepository;
+import org.pdm.backend.repository.ProductSearchRepository;
+import org.pdm.backend.repository.ProductSuggestRepository;
 import org.pdm.backend.service.CategoryService;
 import org.pdm.backend.wrappers.Response;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -17,6 +23,9 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductSearchRepository productSearchRepository;
+    private final ProductSuggestRepository productSuggestRepository;
 
 
 
@@ -32,20 +41,22 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    public Response getAllCategories(int page, int limit, String search) {
-        // Fetch paginated + filtered categories
-        List<Category> categoryList = categoryRepository.findAllFilteredPaged(search, page, limit);
+    public Response getAllCategories(int page, int limit, String search, CountMode countMode) {
+        // Fetch paginated + filtered categories with their total in one query
+        PagedResult<Category> result = categoryRepository.findAllFilteredPaged(search, page, limit, countMode);
 
-        // Get count for pagination metadata
-        long totalElements = categoryRepository.countFiltered(search);
-        int totalPages = (int) Math.ceil((double) totalElements / limit);
+        // Pagination metadata, left out when the total was not counted
+        Long totalElements = result.getTotal();
+        Integer totalPages = totalElements == null ? null : (int) Math.ceil((double) totalElements / limit);
 
         return Response.builder()
                 .status(200)
                 .message("success")
-                .categories(categoryList)
+                .categories(result.getItems())
                 .totalElements(totalElements)
                 .totalPages(totalPages)
+                .totalEstimated(result.isEstimated())
+                .hasNext(result.isHasNext())
                 .build();
     }
 
@@ -78,13 +89,24 @@ public class CategoryServiceImpl implements CategoryService {
 
     }
 
+    /**
+     * Deletes the category's products explicitly rather than leaving them to the foreign key cascade,
+     * so the in-memory copies of those products, their search entries and their suggestions can be
+     * dropped once the delete commits.
+     */
     @Override
+    @Transactional
     public Response deleteCategory(Long id) {
 
         categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Category Not Found"));
 
+        List<Long> productIds = productRepository.deleteByCategoryId(id);
         categoryRepository.deleteById(id);
+        for (Long productId : productIds) {
+            productSearchRepository.remove(productId);
+            productSuggestRepository.remove(productId);
+        }
 
         return Response.builder()
                 .status(200)
@@ -0,0 +1,96 @@
+package org.pdm.backend.service.Impl;
+
+import org.pdm.backend.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs independent repository reads of one request side by side, one virtual thread each, so the
+ * request waits for the slowest read instead of their sum.
+ * <p>
+ * Used like {@code StructuredTaskScope.ShutdownOnFailure}: {@code fork} the reads, {@code join},
+ * then take the results. The first failure, or the deadline passing, interrupts the reads still
+ * running and is rethrown from {@code join}; {@code close} waits for them to stop, so no read
+ * outlives the request. Reads run outside the caller's transaction, each on its own pooled connection.
+ */
+final class ConcurrentReads implements AutoCloseable {
+
+    interface Forked<T> {
+        /**
+         * @throws IllegalStateException before a successful {@code join}
+         */
+        T get();
+    }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+    private final List<Future<Object>> forked = new ArrayList<>();
+    private final long deadlineNanos;
+    private boolean joined;
+
+    private ConcurrentReads(Duration deadline) {
+        this.deadlineNanos = System.nanoTime() + deadline.toNanos();
+    }
+
+    static ConcurrentReads open(Duration deadline) {
+        return new ConcurrentReads(deadline);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Forked<T> fork(Callable<T> read) {
+        Future<Object> future = completion.submit((Callable<Object>) read);
+        forked.add(future);
+        return () -> {
+            if (!joined) {
+                throw new IllegalStateException("join() before reading a forked result");
+            }
+            return (T) future.resultNow();
+        };
+    }
+
+    /**
+     * Waits until every read has finished.
+     * @throws DeadlineExceededException when the deadline passes first
+     */
+    void join() {
+        try {
+            for (int done = 0; done < forked.size(); done++) {
+                long remaining = deadlineNanos - System.nanoTime();
+                Future<Object> finished = completion.poll(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                if (finished == null) {
+                    throw new DeadlineExceededException("Request Deadline Exceeded");
+                }
+                finished.get();
+            }
+            joined = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            if (!joined) {
+                forked.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        forked.forEach(future -> future.cancel(true)); // no-op for finished reads
+        executor.close();
+    }
+}
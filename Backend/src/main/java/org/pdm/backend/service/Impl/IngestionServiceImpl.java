@@ -0,0 +1,388 @@
+package org.pdm.backend.service.Impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pdm.backend.enums.IngestionState;
+import org.pdm.backend.enums.TransactionType;
+import org.pdm.backend.exception.NameValueRequiredException;
+import org.pdm.backend.exception.NotFoundException;
+import org.pdm.backend.model.IngestionOutcome;
+import org.pdm.backend.model.IngestionStatus;
+import org.pdm.backend.model.User;
+import org.pdm.backend.repository.IngestionCheckpointRepository;
+import org.pdm.backend.repository.IngestionLogRepository;
+import org.pdm.backend.repository.IngestionLogRepository.LoggedEntry;
+import org.pdm.backend.repository.IngestionOutcomeRepository;
+import org.pdm.backend.service.IngestionService;
+import org.pdm.backend.service.TransactionService;
+import org.pdm.backend.service.UserService;
+import org.pdm.backend.wrappers.BatchLineResult;
+import org.pdm.backend.wrappers.BatchTransactionLine;
+import org.pdm.backend.wrappers.IngestionEntry;
+import org.pdm.backend.wrappers.Response;
+import org.pdm.backend.wrappers.TransactionRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Async mode for sell and purchase: requests are acknowledged as soon as they are durable in the
+ * local write-ahead log, and a single applier thread drains the log into MySQL in grouped transactions,
+ * strictly in log order. The applied sequence is checkpointed in the same transaction as the ledger rows,
+ * so after a crash or a failed attempt the applier resumes right after the last committed entry and
+ * nothing is posted twice. Entries refused by validation, and entries that fail even on their own
+ * (dead letters), are recorded with their message and skipped; clients look them up by the sequence
+ * number of their 202 through {@link #getOutcome}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "ingestion.async.enabled", havingValue = "true")
+public class IngestionServiceImpl implements IngestionService {
+
+    private final IngestionLogRepository ingestionLogRepository;
+    private final IngestionCheckpointRepository ingestionCheckpointRepository;
+    private final TransactionService transactionService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final IngestionOutcomeRepository ingestionOutcomeRepository;
+    private final MeterRegistry meterRegistry;
+
+    private record Decoded(LoggedEntry logged, IngestionEntry entry, String error) {
+    }
+
+    @Value("${ingestion.apply.batch-size:500}")
+    private int applyBatchSize;
+
+    @Value("${ingestion.apply.idle-millis:20}")
+    private long applyIdleMillis;
+
+    @Value("${ingestion.apply.retry-millis:1000}")
+    private long applyRetryMillis;
+
+    private Thread applier;
+    private volatile boolean running;
+    private volatile long appliedSequence;
+    private volatile long acceptedLines;
+    private volatile long rejectedLines;
+    private volatile long failedLines;
+    private volatile String lastError;
+
+    @PostConstruct
+    private void start() {
+        appliedSequence = ingestionCheckpointRepository.findAppliedSequence();
+        ingestionLogRepository.open(appliedSequence);
+        long pending = ingestionLogRepository.durableSequence() - appliedSequence;
+        if (pending > 0)
+            log.info("Replaying {} unapplied ingestion log entries after sequence {}", pending, appliedSequence);
+
+        running = true;
+        applier = new Thread(this::drain, "ingestion-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    @PreDestroy
+    private void stop() throws InterruptedException {
+        running = false;
+        applier.interrupt();
+        applier.join(applyRetryMillis + 5000);
+    }
+
+    @Override
+    public Response enqueue(TransactionType transactionType, TransactionRequest transactionRequest) {
+
+        if (transactionType != TransactionType.SALE && transactionRequest.getSupplierId() == null)
+            throw new NameValueRequiredException("Supplier Id is Required");
+
+        User user = userService.getCurrentLoggedInUser();
+
+        BatchTransactionLine line = BatchTransactionLine.builder()
+                .transactionType(transactionType)
+                .productId(transactionRequest.getProductId())
+                .quantity(transactionRequest.getQuantity())
+                .supplierId(transactionType == TransactionType.SALE ? null : transactionRequest.getSupplierId())
+                .description(transactionRequest.getDescription())
+                .note(transactionRequest.getNote())
+                .build();
+
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(new IngestionEntry(user.getId(), line));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode transaction", e);
+        }
+        long sequence = ingestionLogRepository.append(payload);
+
+        return Response.builder()
+                .status(202)
+                .message("Transaction Queued, Outcome At /api/transactions/ingestion/" + sequence)
+                .sequence(sequence)
+                .build();
+    }
+
+    @Override
+    public Response getStatus() {
+
+        long durable = ingestionLogRepository.durableSequence();
+        long applied = appliedSequence;
+
+        IngestionStatus status = IngestionStatus.builder()
+                .lastSequence(ingestionLogRepository.lastSequence())
+                .durableSequence(durable)
+                .appliedSequence(applied)
+                .lag(Math.max(0, durable - applied))
+                .acceptedLines(acceptedLines)
+                .rejectedLines(rejectedLines)
+                .failedLines(failedLines)
+                .segments(ingestionLogRepository.segmentCount())
+                .lastError(lastError)
+                .build();
+
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .ingestion(status)
+                .build();
+    }
+
+    /**
+     * PENDING until the applier reaches the entry, then APPLIED unless an outcome was recorded for it.
+     */
+    @Override
+    public Response getOutcome(long sequence) {
+
+        if (sequence <= 0 || sequence > ingestionLogRepository.lastSequence())
+            throw new NotFoundException("Ingestion Log Entry Not Found");
+
+        IngestionOutcome outcome;
+        if (sequence > appliedSequence) {
+            outcome = IngestionOutcome.builder().sequence(sequence).state(IngestionState.PENDING).build();
+        } else {
+            outcome = ingestionOutcomeRepository.findBySequence(sequence)
+                    .orElseGet(() -> IngestionOutcome.builder().sequence(sequence).state(IngestionState.APPLIED).build());
+        }
+
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .ingestionOutcome(outcome)
+                .build();
+    }
+
+    private void drain() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        while (running) {
+            try {
+                if (!applyPending(transactionTemplate)) {
+                    Thread.sleep(applyIdleMillis);
+                    continue;
+                }
+                lastError = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // only transient failures get here; nothing past appliedSequence was committed
+                lastError = e.getMessage();
+                log.warn("Applying ingestion log after sequence {} failed, retrying: {}", appliedSequence, e.getMessage());
+                try {
+                    Thread.sleep(applyRetryMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the next group of durable entries and drops the log segments it finished.
+     * @return false when nothing was waiting
+     * @throws RuntimeException on a transient database error, with nothing after {@code appliedSequence} committed
+     */
+    boolean applyPending(TransactionTemplate transactionTemplate) {
+        List<LoggedEntry> entries = ingestionLogRepository.readAfter(appliedSequence, applyBatchSize);
+        if (entries.isEmpty()) {
+            return false;
+        }
+        apply(transactionTemplate, decode(entries));
+        ingestionLogRepository.truncateThrough(appliedSequence);
+        return true;
+    }
+
+    private List<Decoded> decode(List<LoggedEntry> entries) {
+        List<Decoded> decoded = new ArrayList<>(entries.size());
+        for (LoggedEntry entry : entries) {
+            try {
+                decoded.add(new Decoded(entry, objectMapper.readValue(entry.payload(), IngestionEntry.class), null));
+            } catch (IOException e) {
+                decoded.add(new Decoded(entry, null, "Unreadable Log Entry: " + e.getMessage()));
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Applies the group in one transaction. If that fails for anything but a transient database error,
+     * some entry in it cannot be applied: each one is then applied in a transaction of its own, and one
+     * that still fails is dead-lettered and skipped, so it cannot hold back the entries behind it.
+     */
+    private void apply(TransactionTemplate transactionTemplate, List<Decoded> entries) {
+        try {
+            applyGroup(transactionTemplate, entries);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            if (entries.size() == 1) {
+                deadLetter(transactionTemplate, entries.get(0), e);
+                return;
+            }
+            log.warn("Applying ingestion log entries {} to {} together failed, applying them one by one: {}",
+                    entries.get(0).logged().sequence(), entries.get(entries.size() - 1).logged().sequence(), e.getMessage());
+            for (Decoded entry : entries) {
+                apply(transactionTemplate, List.of(entry));
+            }
+        }
+    }
+
+    // one database transaction for the whole group: ledger rows, stock, rollups, outcomes and the checkpoint
+    private void applyGroup(TransactionTemplate transactionTemplate, List<Decoded> entries) {
+
+        long lastSequence = entries.get(entries.size() - 1).logged().sequence();
+        LocalDateTime now = LocalDateTime.now();
+        List<IngestionOutcome> outcomes = new ArrayList<>();
+
+        long accepted = transactionTemplate.execute(status -> {
+            long applied = 0;
+            // in log order: a run is a stretch of consecutive entries of one user, so no entry
+            // is applied ahead of an earlier one competing for the same stock
+            int runStart = 0;
+            while (runStart < entries.size()) {
+                Decoded first = entries.get(runStart);
+                if (first.error() != null) {
+                    outcomes.add(failed(first, first.error(), now));
+                    runStart++;
+                    continue;
+                }
+                int runEnd = runStart + 1;
+                while (runEnd < entries.size() && entries.get(runEnd).error() == null &&
+                        Objects.equals(entries.get(runEnd).entry().getUserId(), first.entry().getUserId())) {
+                    runEnd++;
+                }
+                List<Decoded> run = entries.subList(runStart, runEnd);
+                List<BatchLineResult> results = transactionService.applyBatch(
+                        run.stream().map(decoded -> decoded.entry().getLine()).toList(), first.entry().getUserId());
+                for (BatchLineResult result : results) {
+                    if (result.isAccepted()) {
+                        applied++;
+                    } else {
+                        outcomes.add(IngestionOutcome.builder()
+                                .sequence(run.get(result.getIndex()).logged().sequence())
+                                .state(IngestionState.REJECTED)
+                                .message(result.getMessage())
+                                .recordedAt(now)
+                                .build());
+                    }
+                }
+                runStart = runEnd;
+            }
+            ingestionOutcomeRepository.saveAll(outcomes);
+            ingestionCheckpointRepository.saveAppliedSequence(lastSequence);
+            return applied;
+        });
+
+        appliedSequence = lastSequence;
+        acceptedLines += accepted;
+        for (IngestionOutcome outcome : outcomes) {
+            if (outcome.getState() == IngestionState.REJECTED) {
+                rejectedLines++;
+                log.warn("Ingestion log entry {} rejected: {}", outcome.getSequence(), outcome.getMessage());
+            } else {
+                failedLines++;
+                log.error("Ingestion log entry {} dead-lettered: {}", outcome.getSequence(), outcome.getMessage());
+            }
+        }
+        countLines("accepted", accepted);
+        countLines("rejected", outcomes.stream().filter(outcome -> outcome.getState() == IngestionState.REJECTED).count());
+        countLines("failed", outcomes.stream().filter(outcome -> outcome.getState() == IngestionState.FAILED).count());
+    }
+
+    private void deadLetter(TransactionTemplate transactionTemplate, Decoded entry, RuntimeException error) {
+        long sequence = entry.logged().sequence();
+        IngestionOutcome outcome = failed(entry, String.valueOf(error.getMessage()), LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            ingestionOutcomeRepository.saveAll(List.of(outcome));
+            ingestionCheckpointRepository.saveAppliedSequence(sequence);
+        });
+        appliedSequence = sequence;
+        failedLines++;
+        log.error("Ingestion log entry {} dead-lettered: {}", sequence, outcome.getMessage(), error);
+        countLines("failed", 1);
+    }
+
+    private void countLines(String result, long count) {
+        if (count > 0) {
+            meterRegistry.counter("ingestion.lines", "result", result).increment(count);
+        }
+    }
+
+    private static IngestionOutcome failed(Decoded entry, String message, LocalDateTime now) {
+        return IngestionOutcome.builder()
+                .sequence(entry.logged().sequence())
+                .state(IngestionState.FAILED)
+                .message(message)
+                .payload(entry.logged().payload())
+                .recordedAt(now)
+                .build();
+    }
+
+    /**
+     * Lost connections, deadlocks and lock timeouts: retrying the same entries later can succeed.
+     */
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException ||
+                    cause instanceof DataAccessResourceFailureException ||
+                    cause instanceof CannotCreateTransactionException ||
+                    cause instanceof SQLTransientException ||
+                    cause instanceof SQLRecoverableException ||
+                    cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            // 08: connection exception, 40: transaction rollback (deadlock, serialization failure)
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null &&
+                    (sqlException.getSQLState().startsWith("08") || sqlException.getSQLState().startsWith("40"))) {
+                return true;
+            }
+            // MySQL lock wait timeout and deadlock, whatever SQLState the driver reports them with
+            if (cause instanceof SQLException sqlException &&
+                    (sqlException.getErrorCode() == 1205 || sqlException.getErrorCode() == 1213)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
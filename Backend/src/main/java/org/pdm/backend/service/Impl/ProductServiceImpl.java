@@ -8,8 +8,12 @@ import org.modelmapper.TypeToken;
 import org.pdm.backend.exception.NotFoundException;
 import org.pdm.backend.model.Category;
 import org.pdm.backend.model.Product;
+import org.pdm.backend.model.ProductSuggestion;
 import org.pdm.backend.repository.CategoryRepository;
 import org.pdm.backend.repository.ProductRepository;
+import org.pdm.backend.repository.ProductSearchRepository;
+import org.pdm.backend.repository.ProductSearchRepository.Hits;
+import org.pdm.backend.repository.ProductSuggestRepository;
 import org.pdm.backend.service.ProductService;
 import org.pdm.backend.wrappers.Response;
 import org.springframework.data.domain.Sort;
@@ -17,20 +21,30 @@ import org.springframework.stereotype.Repository;
 import org.springframework.web.multipart.MultipartFile;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import java.nio.file.Paths;
 import java.nio.file.Path;
 
 import java.io.File;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Service
 @Slf4j
+@Transactional
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchRepository productSearchRepository;
+    private final ProductSuggestRepository productSuggestRepository;
 
 
     @Override
@@ -48,6 +62,9 @@ public class ProductServiceImpl implements ProductService {
         productToSave.setStockQuantity(product.getStockQuantity());
         productToSave.setDescription(product.getDescription());
         productToSave.setCategoryId(category.getId());
+        LocalDateTime now = LocalDateTime.now();
+        productToSave.setCreatedAt(now);
+        productToSave.setExpiryDate(now.plusMonths(12)); // the product form has no expiry field
 
         if (imageFile != null && !imageFile.isEmpty()) {
             String imagePath = saveImage(imageFile);
@@ -55,6 +72,8 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.save(productToSave);
+        productSearchRepository.index(productToSave);
+        productSuggestRepository.index(productToSave);
 
         return Response.builder()
                 .status(200)
@@ -99,6 +118,8 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.update(existingProduct);
+        productSearchRepository.index(existingProduct);
+        productSuggestRepository.index(existingProduct);
 
         return Response.builder()
                 .status(200)
@@ -107,6 +128,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // one statement; the query cache skips reads in a transaction
     public Response getAllProducts(Long categoryId) {
 
         List<Product> products = productRepository.findAll(categoryId);
@@ -138,6 +160,8 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new NotFoundException("Product Not Found"));
 
         productRepository.deleteById(id);
+        productSearchRepository.remove(id);
+        productSuggestRepository.remove(id);
 
         return Response.builder()
                 .status(200)
@@ -146,18 +170,43 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Response searchProducts(String input) {
+    public Response suggestProducts(String prefix, int limit) {
 
-        List<Product> products = productRepository.findByNameContainingOrDescriptionContaining(input, input);
+        // served entirely from memory
+        List<ProductSuggestion> suggestions = productSuggestRepository.suggest(prefix, limit);
 
-        if (products.isEmpty()) {
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .suggestions(suggestions)
+                .build();
+    }
+
+    @Override
+    public Response searchProducts(String input, int page, int size) {
+
+        // 1. Rank against the in-memory index, no table scan
+        int pageSize = Math.max(size, 1);
+        Hits hits = productSearchRepository.search(input, page, pageSize);
+
+        if (hits.total() == 0) {
             throw new NotFoundException("Product Not Found");
         }
 
+        // 2. Load just this page and put it back in rank order
+        Map<Long, Product> productsById = productRepository.findAllByIds(hits.productIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = hits.productIds().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
         return Response.builder()
                 .status(200)
                 .message("success")
                 .products(products)
+                .totalElements(hits.total())
+                .totalPages((int) Math.ceil((double) hits.total() / pageSize))
                 .build();
     }
 
@@ -0,0 +1,53 @@
+package org.pdm.backend.service.Impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pdm.backend.model.QueryPlanCheck;
+import org.pdm.backend.repository.SchemaMigrationRepository;
+import org.pdm.backend.service.SchemaService;
+import org.pdm.backend.wrappers.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaServiceImpl implements SchemaService {
+
+    private final SchemaMigrationRepository schemaMigrationRepository;
+
+    @Value("${migrations.check-plans-on-startup:true}")
+    private boolean checkPlansOnStartup;
+
+    /**
+     * Logs every hot query whose plan no longer uses its index, e.g. after an index was dropped by hand.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkPlansOnStartup() {
+        if (!checkPlansOnStartup) {
+            return;
+        }
+        try {
+            for (QueryPlanCheck check : schemaMigrationRepository.checkQueryPlans()) {
+                if (!check.isOk()) {
+                    log.warn("Query plan of '{}': {} (type={}, key={}, rows={})", check.getQuery(), check.getWarning(),
+                            check.getAccessType(), check.getKey(), check.getEstimatedRows());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Query plans not checked on startup: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Response getStatus() {
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .migrations(schemaMigrationRepository.findAll())
+                .queryPlans(schemaMigrationRepository.checkQueryPlans())
+                .build();
+    }
+}
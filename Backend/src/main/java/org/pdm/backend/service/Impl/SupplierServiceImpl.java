@@ -6,18 +6,28 @@ import org.pdm.backend.exception.NameValueRequiredException;
 import org.pdm.backend.exception.NotFoundException; 
 import org.pdm.backend.model.Supplier;
 import org.pdm.backend.repository.SupplierRepository;
+import org.pdm.backend.repository.SupplierSearchRepository;
 import org.pdm.backend.service.SupplierService; 
 import org.pdm.backend.wrappers.Response; 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional // so the search index only hears about writes that commit
 public class SupplierServiceImpl implements SupplierService {
     private final SupplierRepository supplierRepository;
+    private final SupplierSearchRepository supplierSearchRepository;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // the query cache skips reads in a transaction
     public Response getAllSuppliers(String input){
 
         List<Supplier> suppliers;
@@ -25,7 +35,14 @@ public class SupplierServiceImpl implements SupplierService {
             suppliers = supplierRepository.findAll();
         }
         else {
-            suppliers = supplierRepository.searchSupplierByAnything(input);
+            // rank with the trigram index, then load just the matches in that order
+            List<Long> ids = supplierSearchRepository.search(input);
+            Map<Long, Supplier> suppliersById = supplierRepository.findAllByIds(ids).stream()
+                    .collect(Collectors.toMap(Supplier::getId, Function.identity()));
+            suppliers = ids.stream()
+                    .map(suppliersById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
         }
 
 
@@ -52,6 +69,7 @@ public class SupplierServiceImpl implements SupplierService {
             throw new NameValueRequiredException("Supplier name is required");
         }
         supplierRepository.save(savedSupplier);
+        supplierSearchRepository.index(savedSupplier);
         return Response.builder()
                 .status(200)
                 .message("SUCCESSED!")
@@ -72,6 +90,10 @@ public class SupplierServiceImpl implements SupplierService {
             existingSupplier.setAddress(supplierRequest.getAddress());
         }
         Supplier updatedSupplier = supplierRepository.update(existingSupplier);
+        if (updatedSupplier == null) {
+            throw new IllegalStateException("Supplier " + id + " could not be updated");
+        }
+        supplierSearchRepository.index(updatedSupplier);
 
         return Response.builder()
                 .status(200)
@@ -84,6 +106,7 @@ public class SupplierServiceImpl implements SupplierService {
         supplierRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Supplier not found with id: " + id));
         supplierRepository.deleteById(id);
+        supplierSearchRepository.remove(id);
         return Response.builder()
                 .status(200)
                 .message("Supplier deleted successfully")
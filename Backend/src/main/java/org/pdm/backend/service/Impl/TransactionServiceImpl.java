@@ -1,38 +1,75 @@
 package org.pdm.backend.service.Impl;
 
+import org.pdm.backend.enums.CountMode;
+import org.pdm.backend.enums.RollupGranularity;
 import org.pdm.backend.enums.TransactionStatus;
 import org.pdm.backend.enums.TransactionType;
 import org.pdm.backend.exception.NameValueRequiredException;
 import org.pdm.backend.exception.NotFoundException;
+import org.pdm.backend.model.DailyTransactionSummary;
+import org.pdm.backend.model.PagedResult;
 import org.pdm.backend.model.Product;
 import org.pdm.backend.model.Supplier;
 import org.pdm.backend.model.Transaction;
+import org.pdm.backend.model.TransactionRollup;
 import org.pdm.backend.model.User;
+import org.pdm.backend.repository.CountCacheRepository.CachedCount;
 import org.pdm.backend.repository.ProductRepository;
 import org.pdm.backend.repository.SupplierRepository;
 import org.pdm.backend.repository.TransactionRepository;
+import org.pdm.backend.repository.TransactionRollupRepository;
 import org.pdm.backend.service.TransactionService;
 import org.pdm.backend.service.UserService;
+import org.pdm.backend.wrappers.BatchLineResult;
+import org.pdm.backend.wrappers.BatchTransactionLine;
+import org.pdm.backend.wrappers.BatchTransactionRequest;
 import org.pdm.backend.wrappers.Response;
+import org.pdm.backend.wrappers.TransactionFilter;
 import org.pdm.backend.wrappers.TransactionRequest;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional
 public class TransactionServiceImpl implements TransactionService {
 
         private final TransactionRepository transactionRepository;
         private final SupplierRepository supplierRepository;
         private final UserService userService;
         private final ProductRepository productRepository;
+        private final TransactionRollupRepository transactionRollupRepository;
+
+        @Value("${rollups.rebuild.parallelism:4}")
+        private int rollupRebuildParallelism;
+
+        // budget for the reads of one list request run side by side
+        @Value("${reads.deadline-millis:5000}")
+        private long readDeadlineMillis;
 
         @Override
         public Response restockInventory(TransactionRequest transactionRequest) {
@@ -51,9 +88,6 @@ public class TransactionServiceImpl implements TransactionService {
                     .orElseThrow(() -> new NotFoundException("Supplier Not Found"));
 
             User user = userService.getCurrentLoggedInUser();
-            
-            product.setStockQuantity(product.getStockQuantity() + quantity);
-            productRepository.update(product);
 
             Transaction transaction = new Transaction();
             transaction.setTransactionType(TransactionType.PURCHASE);
@@ -66,7 +100,8 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setDescription(transactionRequest.getDescription());
             transaction.setCreatedAt(LocalDateTime.now());
 
-            transactionRepository.save(transaction);
+            // stock moves atomically with the ledger insert
+            transactionRepository.saveWithStockMovement(transaction, quantity);
 
             return Response.builder()
                     .status(200)
@@ -85,10 +120,6 @@ public class TransactionServiceImpl implements TransactionService {
 
             User user = userService.getCurrentLoggedInUser();
 
-            // update stock and resave
-            product.setStockQuantity(product.getStockQuantity() - quantity);
-            productRepository.update(product);
-
             Transaction transaction = new Transaction();
             transaction.setTransactionType(TransactionType.SALE);
             transaction.setStatus(TransactionStatus.COMPLETED);
@@ -99,7 +130,8 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setDescription(transactionRequest.getDescription());
             transaction.setCreatedAt(LocalDateTime.now());
 
-            transactionRepository.save(transaction);
+            // decrement only succeeds while enough stock is left
+            transactionRepository.saveWithStockMovement(transaction, -quantity);
 
             return Response.builder()
                     .status(200)
@@ -125,10 +157,6 @@ public class TransactionServiceImpl implements TransactionService {
 
             User user = userService.getCurrentLoggedInUser();
 
-            // update stock and resave
-            product.setStockQuantity(product.getStockQuantity() - quantity);
-            productRepository.update(product);
-
             Transaction transaction = new Transaction();
             transaction.setTransactionType(TransactionType.RETURN_TO_SUPPLIER);
             transaction.setStatus(TransactionStatus.PROCESSING);
@@ -140,7 +168,8 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setDescription(transactionRequest.getDescription());
             transaction.setCreatedAt(LocalDateTime.now());
 
-            transactionRepository.save(transaction);
+            // decrement only succeeds while enough stock is left
+            transactionRepository.saveWithStockMovement(transaction, -quantity);
 
             return Response.builder()
                     .status(200)
@@ -148,33 +177,207 @@ public class TransactionServiceImpl implements TransactionService {
                     .build();
         }
 
-    @Override
-    public Response getAllTransactions(int page, int size, String filter) {
+        @Override
+        public Response postBatch(BatchTransactionRequest batchTransactionRequest) {
 
-        // 1. Fetch paginated + filtered transactions
-        List<Transaction> transactions =
-                transactionRepository.findAllFilteredPaged(filter, page, size);
+            User user = userService.getCurrentLoggedInUser();
 
-        // 2. Get count for pagination metadata
-        long totalElements =
-                transactionRepository.countFiltered(filter);
+            List<BatchLineResult> batchResults = applyBatch(batchTransactionRequest.getLines(), user.getId());
+            long accepted = batchResults.stream().filter(BatchLineResult::isAccepted).count();
 
-        int totalPages = (int) Math.ceil((double) totalElements / size);
+            return Response.builder()
+                    .status(200)
+                    .message(accepted + " of " + batchResults.size() + " Transactions Posted")
+                    .batchResults(batchResults)
+                    .build();
+        }
 
-        // 3. Optional: Remove nested objects if needed (but keep product for display)
-        transactions.forEach(t -> {
-            t.setUserId(null);
-            t.setSupplierId(null);
-        });
+        /**
+         * Validates every line against one set-based read of its products and suppliers, then writes
+         * the stock movements and the ledger rows as JDBC batches, so the number of round trips does
+         * not grow with the number of lines. Same rules as the single-line endpoints; a bad line is
+         * rejected with its reason instead of failing the whole batch.
+         */
+        @Override
+        public List<BatchLineResult> applyBatch(List<BatchTransactionLine> lines, Long userId) {
+
+            // 1. Load everything the batch refers to in two queries
+            Set<Long> productIds = new HashSet<>();
+            Set<Long> supplierIds = new HashSet<>();
+            for (BatchTransactionLine line : lines) {
+                productIds.add(line.getProductId());
+                if (line.getSupplierId() != null)
+                    supplierIds.add(line.getSupplierId());
+            }
+            Map<Long, Product> products = productRepository.findAllByIds(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            Set<Long> knownSuppliers = supplierRepository.findAllByIds(supplierIds).stream()
+                    .map(Supplier::getId)
+                    .collect(Collectors.toSet());
+
+            // 2. Validate line by line, keeping a running stock so lines cannot oversell together
+            BatchLineResult[] results = new BatchLineResult[lines.size()];
+            Transaction[] transactions = new Transaction[lines.size()];
+            Map<Long, Integer> stock = new HashMap<>();
+            Map<Long, Integer> deltas = new HashMap<>();
+            LocalDateTime now = LocalDateTime.now();
+
+            for (int i = 0; i < lines.size(); i++) {
+                BatchTransactionLine line = lines.get(i);
+                TransactionType type = line.getTransactionType();
+                // lines from the ingestion log were not validated as batch lines
+                if (type == null || line.getProductId() == null) {
+                    results[i] = BatchLineResult.rejected(i, "Transaction Type and Product Id are Required");
+                    continue;
+                }
+                if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                    results[i] = BatchLineResult.rejected(i, "Quantity Must Be Positive");
+                    continue;
+                }
+                int quantity = line.getQuantity();
+                Product product = products.get(line.getProductId());
+
+                if (product == null) {
+                    results[i] = BatchLineResult.rejected(i, "Product Not Found");
+                    continue;
+                }
+                if (type != TransactionType.SALE) {
+                    if (line.getSupplierId() == null) {
+                        results[i] = BatchLineResult.rejected(i, "Supplier Id is Required");
+                        continue;
+                    }
+                    if (!knownSuppliers.contains(line.getSupplierId())) {
+                        results[i] = BatchLineResult.rejected(i, "Supplier Not Found");
+                        continue;
+                    }
+                }
+
+                int delta = type == TransactionType.PURCHASE ? quantity : -quantity;
+                int available = stock.computeIfAbsent(product.getId(),
+                        id -> product.getStockQuantity() == null ? 0 : product.getStockQuantity());
+                if (available + delta < 0) {
+                    results[i] = BatchLineResult.rejected(i, "Insufficient Stock");
+                    continue;
+                }
+                stock.put(product.getId(), available + delta);
+                deltas.merge(product.getId(), delta, Integer::sum);
+
+                Transaction transaction = new Transaction();
+                transaction.setTransactionType(type);
+                transaction.setProductId(product.getId());
+                transaction.setUserId(userId);
+                transaction.setTotalProducts(quantity);
+                transaction.setDescription(line.getDescription());
+                transaction.setNote(line.getNote());
+                transaction.setCreatedAt(now);
+                if (type == TransactionType.RETURN_TO_SUPPLIER) {
+                    transaction.setStatus(TransactionStatus.PROCESSING);
+                    transaction.setSupplierId(line.getSupplierId());
+                    transaction.setTotalPrice(BigDecimal.ZERO);
+                } else {
+                    transaction.setStatus(TransactionStatus.COMPLETED);
+                    transaction.setSupplierId(type == TransactionType.PURCHASE ? line.getSupplierId() : null);
+                    transaction.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+                }
+                transactions[i] = transaction;
+            }
+
+            // 3. One conditional update per product with the net delta; a refused product
+            //    (stock changed since it was read) rejects all of its lines
+            Set<Long> refused = productRepository.adjustStockBatch(deltas);
+
+            List<Transaction> toSave = new ArrayList<>();
+            for (int i = 0; i < transactions.length; i++) {
+                if (transactions[i] == null)
+                    continue;
+                if (refused.contains(transactions[i].getProductId())) {
+                    results[i] = BatchLineResult.rejected(i, "Insufficient Stock");
+                    transactions[i] = null;
+                    continue;
+                }
+                toSave.add(transactions[i]);
+            }
+
+            // 4. Insert the ledger rows and their rollups in one batch each
+            transactionRepository.saveAll(toSave);
+            for (int i = 0; i < transactions.length; i++) {
+                if (transactions[i] != null)
+                    results[i] = BatchLineResult.accepted(i, transactions[i].getId());
+            }
+
+            return List.of(results);
+        }
 
-        return Response.builder()
-                .status(200)
-                .message("success")
-                .transactions(transactions)
-                .totalElements(totalElements)
-                .totalPages(totalPages)
-                .build();
-    }
+        /**
+         * EXACT and NONE are a single query. For ESTIMATED the page and the estimate are independent
+         * reads, so they run concurrently under one deadline. No transaction: each read takes its own
+         * connection instead of leaving one idle on the request thread.
+         */
+        @Override
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        public Response getAllTransactions(int page, int size, TransactionFilter filter, CountMode countMode) {
+
+            // 1. Fetch the page with its total (full-text search ranks best matches first)
+            PagedResult<Transaction> result;
+            if (countMode == CountMode.ESTIMATED) {
+                try (ConcurrentReads reads = ConcurrentReads.open(Duration.ofMillis(readDeadlineMillis))) {
+                    ConcurrentReads.Forked<PagedResult<Transaction>> rows = reads.fork(() -> readPage(filter, page, size, CountMode.NONE));
+                    ConcurrentReads.Forked<CachedCount> total = reads.fork(() -> transactionRepository.countTotal(filter, countMode));
+                    reads.join();
+                    // a new result carrying the separately read total
+                    result = new PagedResult<>(rows.get().getItems(), total.get().count(),
+                            rows.get().isHasNext(), total.get().estimated());
+                }
+            } else {
+                result = readPage(filter, page, size, countMode);
+            }
+            List<Transaction> transactions = result.getItems();
+
+            // 2. Pagination metadata, left out when the total was not counted
+            Long totalElements = result.getTotal();
+            Integer totalPages = totalElements == null ? null : (int) Math.ceil((double) totalElements / size);
+
+            return Response.builder()
+                    .status(200)
+                    .message("success")
+                    .transactions(transactions)
+                    .totalElements(totalElements)
+                    .totalPages(totalPages)
+                    .totalEstimated(result.isEstimated())
+                    .hasNext(result.isHasNext())
+                    .build();
+        }
+
+        private PagedResult<Transaction> readPage(TransactionFilter filter, int page, int size, CountMode countMode) {
+            return filter.hasText()
+                    ? transactionRepository.searchRanked(filter, page, size, countMode)
+                    : transactionRepository.findAllFilteredPaged(filter, page, size, countMode);
+        }
+
+        @Override
+        @Transactional(propagation = Propagation.NOT_SUPPORTED) // the query cache skips reads in a transaction
+        public Response getTransactionsAfter(Long after, int size, TransactionFilter filter) {
+
+            // 1. Fetch one extra row to know whether another page exists
+            Long afterId = (after == null || after <= 0) ? null : after;
+            int pageSize = Math.max(size, 1);
+            List<Transaction> transactions =
+                    transactionRepository.findAllFilteredAfter(filter, afterId, pageSize + 1);
+
+            // 2. The cursor for the next page is the id of the last returned row
+            Long nextCursor = null;
+            if (transactions.size() > pageSize) {
+                transactions = transactions.subList(0, pageSize);
+                nextCursor = transactions.get(pageSize - 1).getId();
+            }
+
+            return Response.builder()
+                    .status(200)
+                    .message("success")
+                    .transactions(transactions)
+                    .nextCursor(nextCursor)
+                    .build();
+        }
 
         @Override
         public Response getTransactionById(Long id) {
@@ -201,6 +404,81 @@ public class TransactionServiceImpl implements TransactionService {
                     .build();
         }
 
+        @Override
+        public Response getDailySummary(int month, int year) {
+
+            YearMonth yearMonth = YearMonth.of(year, month);
+            LocalDateTime from = yearMonth.atDay(1).atStartOfDay();
+
+            // one row per active day from the database, zero-filled for the rest of the month
+            DailyTransactionSummary[] days = new DailyTransactionSummary[yearMonth.lengthOfMonth()];
+            for (DailyTransactionSummary summary : transactionRepository.summarizeDaily(from, from.plusMonths(1))) {
+                days[summary.getDay() - 1] = summary;
+            }
+            List<DailyTransactionSummary> dailySummaries = new ArrayList<>(days.length);
+            for (int day = 1; day <= days.length; day++) {
+                dailySummaries.add(days[day - 1] != null ? days[day - 1]
+                        : new DailyTransactionSummary(day, 0, 0, BigDecimal.ZERO));
+            }
+
+            return Response.builder()
+                    .status(200)
+                    .message("success")
+                    .dailySummaries(dailySummaries)
+                    .build();
+        }
+
+        @Override
+        public Response getRollups(RollupGranularity granularity, LocalDate from, LocalDate to, Long productId) {
+
+            if (!from.isBefore(to))
+                throw new IllegalArgumentException("'from' must be before 'to'");
+
+            List<TransactionRollup> rollups = transactionRollupRepository.findRollups(granularity, from, to, productId);
+
+            return Response.builder()
+                    .status(200)
+                    .message("success")
+                    .rollups(rollups)
+                    .build();
+        }
+
+        /**
+         * Recompute all rollups from the raw ledger, one product partition per worker.
+         * Each partition commits in its own transaction on its worker thread.
+         */
+        @Override
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        public Response rebuildRollups() {
+
+            int partitions = Math.max(1, rollupRebuildParallelism);
+            long rowsWritten = 0;
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(partitions)) {
+                List<Future<Long>> results = new ArrayList<>(partitions);
+                for (int partition = 0; partition < partitions; partition++) {
+                    int current = partition;
+                    results.add(executor.submit(() -> transactionRollupRepository.rebuildPartition(current, partitions)));
+                }
+                for (Future<Long> result : results) {
+                    rowsWritten += result.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Rollup rebuild interrupted");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Rollup rebuild failed: " + e.getCause().getMessage());
+            }
+
+            log.info("Rebuilt transaction rollups: {} rows in {} partitions", rowsWritten, partitions);
+
+            return Response.builder()
+                    .status(200)
+                    .message("Rollups Rebuilt Successfully")
+                    .totalElements(rowsWritten)
+                    .build();
+        }
+
         @Override
         public Response updateTransactionStatus(Long transactionId, TransactionStatus transactionStatus) {
 
@@ -6,6 +6,8 @@ import org.pdm.backend.exception.InvalidCredentialsException;
 import org.pdm.backend.exception.NotFoundException;
 import org.pdm.backend.model.User;
 import org.pdm.backend.repository.UserRepository;
+import org.pdm.backend.security.AuthUser;
+import org.pdm.backend.security.AuthUserCache;
 import org.pdm.backend.security.JwtUtils;
 import org.pdm.backend.service.UserService;
 import org.pdm.backend.wrappers.LoginRequest;
@@ -15,16 +17,20 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Transactional
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final AuthUserCache authUserCache;
 
     @Override
     public Response registerUser(RegisterRequest registerRequest) {
@@ -85,9 +91,15 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS) // no connection needed when the principal is there
     public User getCurrentLoggedInUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
+        // AuthFilter already loaded the user for this request
+        if (authentication.getPrincipal() instanceof AuthUser authUser) {
+            return authUser.getUser();
+        }
+
         String email = authentication.getName();
 
         return userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("User Not Found"));
@@ -122,6 +134,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.update(existingUser);
+        authUserCache.evictUser(id);
 
         return Response.builder()
                 .status(200)
@@ -137,6 +150,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
 
         userRepository.deleteById(id);
+        authUserCache.evictUser(id);
 
         return Response.builder()
                 .status(200)
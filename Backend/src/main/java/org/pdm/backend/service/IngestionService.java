@@ -0,0 +1,11 @@
+package org.pdm.backend.service;
+
+import org.pdm.backend.enums.TransactionType;
+import org.pdm.backend.wrappers.Response;
+import org.pdm.backend.wrappers.TransactionRequest;
+
+public interface IngestionService {
+    Response enqueue(TransactionType transactionType, TransactionRequest transactionRequest);
+    Response getStatus();
+    Response getOutcome(long sequence);
+}
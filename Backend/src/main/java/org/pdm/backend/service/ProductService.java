@@ -9,6 +9,7 @@ public interface ProductService {
     Response updateProduct(Product product, MultipartFile imagefile);
     Response getAllProducts(Long categoryId);
     Response getProductById(Long id);
-    Response searchProducts(String input);
+    Response suggestProducts(String prefix, int limit);
+    Response searchProducts(String input, int page, int size);
     Response deleteProduct(Long id);
 }
@@ -0,0 +1,7 @@
+package org.pdm.backend.service;
+
+import org.pdm.backend.wrappers.Response;
+
+public interface SchemaService {
+    Response getStatus();
+}
@@ -1,15 +1,30 @@
 package org.pdm.backend.service;
 
+import org.pdm.backend.enums.CountMode;
+import org.pdm.backend.enums.RollupGranularity;
 import org.pdm.backend.enums.TransactionStatus;
+import org.pdm.backend.wrappers.BatchLineResult;
+import org.pdm.backend.wrappers.BatchTransactionLine;
+import org.pdm.backend.wrappers.BatchTransactionRequest;
 import org.pdm.backend.wrappers.Response;
+import org.pdm.backend.wrappers.TransactionFilter;
 import org.pdm.backend.wrappers.TransactionRequest;
 
+import java.time.LocalDate;
+import java.util.List;
+
 public interface TransactionService {
     Response restockInventory(TransactionRequest transactionRequest);
     Response sell(TransactionRequest transactionRequest);
     Response returnToSupplier(TransactionRequest transactionRequest);
-    Response getAllTransactions(int page, int size, String filter);
+    Response postBatch(BatchTransactionRequest batchTransactionRequest);
+    List<BatchLineResult> applyBatch(List<BatchTransactionLine> lines, Long userId);
+    Response getAllTransactions(int page, int size, TransactionFilter filter, CountMode countMode);
+    Response getTransactionsAfter(Long after, int size, TransactionFilter filter);
     Response getTransactionById(Long id);
     Response getAllTransactionByMonthAndYear(int month, int year);
+    Response getDailySummary(int month, int year);
+    Response getRollups(RollupGranularity granularity, LocalDate from, LocalDate to, Long productId);
+    Response rebuildRollups();
     Response updateTransactionStatus(Long transactionId, TransactionStatus transactionStatus);
 }
\ No newline at end of file
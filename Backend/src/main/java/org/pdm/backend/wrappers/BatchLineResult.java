@@ -0,0 +1,29 @@
+package org.pdm.backend.wrappers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchLineResult {
+
+    private int index; // position of the line in the request
+
+    private boolean accepted;
+
+    private Long transactionId;
+
+    private String message;
+
+    public static BatchLineResult accepted(int index, Long transactionId) {
+        return new BatchLineResult(index, true, transactionId, null);
+    }
+
+    public static BatchLineResult rejected(int index, String message) {
+        return new BatchLineResult(index, false, null, message);
+    }
+}
@@ -0,0 +1,35 @@
+package org.pdm.backend.wrappers;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.pdm.backend.enums.TransactionType;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchTransactionLine {
+
+    @NotNull(message = "transaction type is required")
+    private TransactionType transactionType;
+
+    @NotNull(message = "product id is required")
+    @Positive(message = "product id must be positive")
+    private Long productId;
+
+    @NotNull(message = "quantity is required")
+    @Positive(message = "quantity must be positive")
+    private Integer quantity;
+
+    private Long supplierId;
+
+    private String description;
+
+    private String note;
+}
@@ -0,0 +1,18 @@
+package org.pdm.backend.wrappers;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTransactionRequest {
+
+    @NotEmpty(message = "at least one line is required")
+    private List<@Valid BatchTransactionLine> lines;
+}
@@ -0,0 +1,21 @@
+package org.pdm.backend.wrappers;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of one write-ahead log record: the line to post and the user who sent it.
+ * The sequence number lives in the record header, not here.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class IngestionEntry {
+
+    private Long userId;
+
+    private BatchTransactionLine line;
+}
@@ -23,6 +23,10 @@ public class Response {
 
     private Integer totalPages;
     private Long totalElements;
+    private Boolean totalEstimated;
+    private Long nextCursor;
+    private Boolean hasNext;
+    private Long sequence;
 
     // data output
     private User user;
@@ -36,9 +40,20 @@ public class Response {
 
     private Product product;
     private List<Product> products;
+    private List<ProductSuggestion> suggestions;
 
     private Transaction transaction;
     private List<Transaction> transactions;
 
+    private List<DailyTransactionSummary> dailySummaries;
+    private List<TransactionRollup> rollups;
+
+    private List<BatchLineResult> batchResults;
+    private IngestionStatus ingestion;
+    private IngestionOutcome ingestionOutcome;
+
+    private List<SchemaMigration> migrations;
+    private List<QueryPlanCheck> queryPlans;
+
     private final LocalDateTime timestamp = LocalDateTime.now();
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package org.pdm.backend.wrappers;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.pdm.backend.enums.TransactionStatus;
+import org.pdm.backend.enums.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Query parameters of the transaction list. Every field is optional, the set ones are ANDed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionFilter {
+
+    private String text; // free-text search over description, note and product name
+
+    private TransactionType type;
+
+    private TransactionStatus status;
+
+    private Long productId;
+
+    private Long supplierId;
+
+    private Long userId;
+
+    private LocalDateTime from; // created_at, inclusive
+
+    private LocalDateTime to; // created_at, exclusive
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+
+    /**
+     * Same key for filters that match the same rows; the text is lower-cased as MySQL
+     * compares it case-insensitively.
+     */
+    public String countKey() {
+        return String.join("|", hasText() ? text.toLowerCase(Locale.ROOT) : "", String.valueOf(type),
+                String.valueOf(status), String.valueOf(productId), String.valueOf(supplierId),
+                String.valueOf(userId), String.valueOf(from), String.valueOf(to));
+    }
+
+    public boolean isEmpty() {
+        return !hasText() && type == null && status == null && productId == null
+                && supplierId == null && userId == null && from == null && to == null;
+    }
+}
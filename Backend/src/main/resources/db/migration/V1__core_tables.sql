@@ -0,0 +1,64 @@
+-- Tables the JDBC repositories read and write, as in inventory_db.sql.
+-- IF NOT EXISTS lets databases created before migrations existed adopt this history;
+-- the indexes come in later versions, each created only when missing.
+CREATE TABLE IF NOT EXISTS categories (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME       DEFAULT NULL,
+    description    VARCHAR(255)   DEFAULT NULL,
+    expiry_date    DATETIME       DEFAULT NULL,
+    image_url      VARCHAR(255)   DEFAULT NULL,
+    name           VARCHAR(255)   NOT NULL,
+    price          DECIMAL(38, 2) DEFAULT NULL,
+    sku            VARCHAR(255)   NOT NULL,
+    stock_quantity INT            DEFAULT NULL,
+    category_id    BIGINT         DEFAULT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY (sku),
+    FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE CASCADE ON UPDATE CASCADE,
+    CHECK (stock_quantity >= 0)
+);
+
+CREATE TABLE IF NOT EXISTS suppliers (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    address      VARCHAR(255) DEFAULT NULL,
+    contact_info VARCHAR(255) NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id           BIGINT                    NOT NULL AUTO_INCREMENT,
+    created_at   DATETIME                  DEFAULT NULL,
+    email        VARCHAR(255)              NOT NULL,
+    name         VARCHAR(255)              NOT NULL,
+    password     VARCHAR(255)              NOT NULL,
+    phone_number VARCHAR(255)              NOT NULL,
+    role         ENUM ('ADMIN', 'MANAGER') DEFAULT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY (email)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id               BIGINT                                                   NOT NULL AUTO_INCREMENT,
+    created_at       DATETIME                                                 DEFAULT NULL,
+    description      VARCHAR(255)                                             DEFAULT NULL,
+    note             VARCHAR(255)                                             DEFAULT NULL,
+    status           ENUM ('CANCELLED', 'COMPLETED', 'PENDING', 'PROCESSING') DEFAULT NULL,
+    total_price      DECIMAL(38, 2)                                           DEFAULT NULL,
+    total_products   INT                                                      DEFAULT NULL,
+    transaction_type ENUM ('PURCHASE', 'RETURN_TO_SUPPLIER', 'SALE')          DEFAULT NULL,
+    update_at        DATETIME                                                 DEFAULT NULL,
+    product_id       BIGINT                                                   DEFAULT NULL,
+    supplier_id      BIGINT                                                   DEFAULT NULL,
+    user_id          BIGINT                                                   DEFAULT NULL,
+    PRIMARY KEY (id),
+    FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE SET NULL ON UPDATE CASCADE,
+    FOREIGN KEY (supplier_id) REFERENCES suppliers (id) ON DELETE SET NULL ON UPDATE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE SET NULL ON UPDATE CASCADE
+);
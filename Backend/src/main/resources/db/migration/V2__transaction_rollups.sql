@@ -0,0 +1,13 @@
+-- Pre-aggregated transaction counters, maintained with every ledger insert
+-- and rebuilt from history by POST /api/transactions/rollups/rebuild.
+CREATE TABLE IF NOT EXISTS transaction_rollups (
+    granularity       VARCHAR(5)     NOT NULL,
+    bucket_start      DATE           NOT NULL,
+    product_id        BIGINT         NOT NULL,
+    transaction_type  VARCHAR(32)    NOT NULL,
+    transaction_count BIGINT         NOT NULL DEFAULT 0,
+    units             BIGINT         NOT NULL DEFAULT 0,
+    total_value       DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start, product_id, transaction_type),
+    KEY idx_transaction_rollups_product (product_id, granularity, bucket_start)
+);
@@ -0,0 +1,8 @@
+-- Highest write-ahead log sequence applied by the async ingestion applier,
+-- written in the same transaction as the ledger rows it covers.
+CREATE TABLE IF NOT EXISTS ingestion_checkpoint (
+    id               TINYINT  NOT NULL,
+    applied_sequence BIGINT   NOT NULL,
+    updated_at       DATETIME NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,15 @@
+-- FULLTEXT indexes behind the transaction search (GET /api/transactions/all?filter=).
+-- MySQL has no ADD INDEX IF NOT EXISTS, so each index is added only when it is missing.
+SET @ddl = IF(EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'transactions' AND index_name = 'ft_transactions_text'),
+            'DO 0', 'ALTER TABLE transactions ADD FULLTEXT KEY ft_transactions_text (description, note)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'ft_products_name'),
+            'DO 0', 'ALTER TABLE products ADD FULLTEXT KEY ft_products_name (name)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
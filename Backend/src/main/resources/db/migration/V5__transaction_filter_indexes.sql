@@ -0,0 +1,39 @@
+-- Structured transaction filters (type, status, product, supplier, user, created_at range).
+-- Type and status are one-byte ENUMs; older databases that hold them as strings are converted.
+SET @ddl = IF(EXISTS (SELECT 1 FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND table_name = 'transactions'
+                AND column_name IN ('transaction_type', 'status') AND data_type <> 'enum'),
+            'ALTER TABLE transactions MODIFY transaction_type ENUM(''PURCHASE'',''RETURN_TO_SUPPLIER'',''SALE'') DEFAULT NULL, MODIFY status ENUM(''CANCELLED'',''COMPLETED'',''PENDING'',''PROCESSING'') DEFAULT NULL',
+            'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- Equality columns first, created_at last, so each filter combination is one index range scan.
+SET @ddl = IF(EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'transactions' AND index_name = 'idx_transactions_supplier'),
+            'DO 0', 'ALTER TABLE transactions ADD KEY idx_transactions_supplier (supplier_id, status, transaction_type, created_at)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'transactions' AND index_name = 'idx_transactions_product'),
+            'DO 0', 'ALTER TABLE transactions ADD KEY idx_transactions_product (product_id, created_at)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'transactions' AND index_name = 'idx_transactions_user'),
+            'DO 0', 'ALTER TABLE transactions ADD KEY idx_transactions_user (user_id, created_at)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF(EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'transactions' AND index_name = 'idx_transactions_type_status'),
+            'DO 0', 'ALTER TABLE transactions ADD KEY idx_transactions_type_status (transaction_type, status, created_at)');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
@@ -0,0 +1,12 @@
+-- Ingestion log entries that were not posted: REJECTED by validation (the client's answer to
+-- GET /api/transactions/ingestion/{sequence}) or FAILED with an error and dead-lettered with their payload.
+-- Applied entries have no row.
+CREATE TABLE IF NOT EXISTS ingestion_outcomes (
+    sequence    BIGINT       NOT NULL,
+    state       VARCHAR(16)  NOT NULL,
+    message     VARCHAR(500) NULL,
+    payload     MEDIUMBLOB   NULL,
+    recorded_at DATETIME     NOT NULL,
+    PRIMARY KEY (sequence),
+    KEY idx_ingestion_outcomes_state (state, sequence)
+);
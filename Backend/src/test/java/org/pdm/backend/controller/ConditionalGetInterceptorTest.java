@@ -0,0 +1,126 @@
+package org.pdm.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.repository.Impl.TableVersionRepositoryImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalGetInterceptorTest {
+
+    private TableVersionRepositoryImpl tableVersionRepository;
+    private ConditionalGetInterceptor interceptor;
+
+    static class Handlers {
+        @ConditionalGet({"products", "categories"})
+        public void list() {
+        }
+
+        public void plain() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        tableVersionRepository = new TableVersionRepositoryImpl();
+        interceptor = new ConditionalGetInterceptor(tableVersionRepository);
+        ReflectionTestUtils.setField(interceptor, "enabled", true);
+    }
+
+    @Test
+    void firstRequestGetsTheEtagAndRunsTheHandler() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(get(), response, handler("list")));
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getHeader(HttpHeaders.ETAG).matches("\"[0-9a-z]+-0-0\""));
+        assertEquals("private, no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void matchingEtagsAnswerNotModified() throws Exception {
+        String etag = currentEtag();
+
+        assertNotModified(etag);
+        assertNotModified("W/" + etag);
+        assertNotModified("\"other\", " + etag);
+        assertNotModified(ConditionalGetInterceptor.gzipVariant(etag));
+        assertNotModified("*");
+    }
+
+    @Test
+    void otherEtagsRunTheHandler() throws Exception {
+        String etag = currentEtag();
+
+        assertModified("\"other\"");
+        assertModified(etag.substring(1, etag.length() - 1)); // unquoted
+        assertModified(etag.replace("-0-0", "-0-1"));
+    }
+
+    @Test
+    void bumpingARequestedTableChangesTheEtag() throws Exception {
+        String etag = currentEtag();
+
+        tableVersionRepository.bump("suppliers");
+        assertEquals(etag, currentEtag());
+
+        tableVersionRepository.bump("categories");
+        assertNotEquals(etag, currentEtag());
+        assertTrue(currentEtag().endsWith("-0-1\""));
+        assertModified(etag);
+    }
+
+    @Test
+    void unmarkedHandlersAndWritesAreLeftAlone() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(get(), response, handler("plain")));
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/products");
+        post.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(post, response, handler("list")));
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    private String currentEtag() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(get(), response, handler("list"));
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertNotModified(String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request, response, handler("list")), ifNoneMatch);
+        assertEquals(304, response.getStatus());
+    }
+
+    private void assertModified(String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, handler("list")), ifNoneMatch);
+        assertEquals(200, response.getStatus());
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/products");
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(method));
+    }
+}
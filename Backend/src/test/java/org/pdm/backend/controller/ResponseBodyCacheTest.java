@@ -0,0 +1,144 @@
+package org.pdm.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.repository.Impl.TableVersionRepositoryImpl;
+import org.pdm.backend.wrappers.Response;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseBodyCacheTest {
+
+    private static final List<String> TABLES = List.of("products", "categories");
+
+    private final TableVersionRepositoryImpl tableVersionRepository = new TableVersionRepositoryImpl();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger produced = new AtomicInteger();
+    private ResponseBodyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseBodyCache(tableVersionRepository, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "gzipMinBytes", 1024);
+    }
+
+    @Test
+    void repeatRequestsAreServedFromTheCache() throws IOException {
+        MockHttpServletResponse first = write(List.of(0, 10), new MockHttpServletRequest());
+        MockHttpServletResponse second = write(List.of(0, 10), new MockHttpServletRequest());
+
+        assertEquals(1, produced.get());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+        assertEquals(1.0, count("hit"));
+        assertEquals(1.0, count("miss"));
+
+        write(List.of(1, 10), new MockHttpServletRequest()); // other parameters, other entry
+        assertEquals(2, produced.get());
+    }
+
+    @Test
+    void bumpingAListedTableRetiresTheBody() throws IOException {
+        write(List.of(0, 10), new MockHttpServletRequest());
+
+        tableVersionRepository.bump("suppliers");
+        write(List.of(0, 10), new MockHttpServletRequest());
+        assertEquals(1, produced.get());
+
+        tableVersionRepository.bump("categories");
+        write(List.of(0, 10), new MockHttpServletRequest());
+        assertEquals(2, produced.get());
+        write(List.of(0, 10), new MockHttpServletRequest());
+        assertEquals(2, produced.get());
+    }
+
+    @Test
+    void bodyThatRacedAWriteIsNotKept() throws IOException {
+        cache.write("products", List.of(), TABLES, new MockHttpServletRequest(), new MockHttpServletResponse(), () -> {
+            produced.incrementAndGet();
+            tableVersionRepository.bump("products"); // a write commits while the body is built
+            return response("stale");
+        });
+        write(List.of(), new MockHttpServletRequest());
+
+        assertEquals(2, produced.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() throws IOException {
+        write(List.of(1), new MockHttpServletRequest());
+        write(List.of(2), new MockHttpServletRequest());
+        write(List.of(1), new MockHttpServletRequest()); // 2 is now the least recently used
+        write(List.of(3), new MockHttpServletRequest());
+        assertEquals(3, produced.get());
+
+        write(List.of(1), new MockHttpServletRequest());
+        assertEquals(3, produced.get());
+        write(List.of(2), new MockHttpServletRequest());
+        assertEquals(4, produced.get());
+    }
+
+    @Test
+    void largeBodiesAreGzippedForClientsThatAcceptIt() throws IOException {
+        ReflectionTestUtils.setField(cache, "gzipMinBytes", 16);
+        MockHttpServletResponse plain = write(List.of(), new MockHttpServletRequest());
+        assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, plain.getHeader(HttpHeaders.VARY));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, GZIP");
+        MockHttpServletResponse gzipped = new MockHttpServletResponse();
+        gzipped.setHeader(HttpHeaders.ETAG, "\"e-1\"");
+        cache.write("products", List.of(), TABLES, request, gzipped, () -> response("unused"));
+
+        assertEquals(1, produced.get());
+        assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"e-1-gzip\"", gzipped.getHeader(HttpHeaders.ETAG));
+        assertEquals(gzipped.getContentAsByteArray().length, gzipped.getContentLength());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertArrayEquals(plain.getContentAsByteArray(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void disabledCacheBuildsEveryBody() throws IOException {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        write(List.of(), new MockHttpServletRequest());
+        write(List.of(), new MockHttpServletRequest());
+
+        assertEquals(2, produced.get());
+        assertEquals(0.0, count("miss"));
+    }
+
+    private MockHttpServletResponse write(List<?> params, MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.write("products", params, TABLES, request, response,
+                () -> response("body " + produced.incrementAndGet()));
+        return response;
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("response.cache.requests", "endpoint", "products", "result", result).count();
+    }
+
+    private static Response response(String message) {
+        return Response.builder().status(200).message(message).build();
+    }
+}
@@ -0,0 +1,137 @@
+package org.pdm.backend.repository.Impl;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Many threads selling one product at once through {@link ProductRepositoryImpl#adjustStock}, against
+ * the MySQL of {@code DB_URL}, {@code DB_USERNAME} and {@code DB_PASSWORD} (the application defaults
+ * otherwise). Skipped when that database cannot be reached. Every sell asks for one unit, and there are
+ * more sells than units, so exactly the stock must sell and the stock must end at zero.
+ */
+class ConcurrentSellTest {
+
+    private static final int THREADS = 16;
+    private static final int SELLS = 500;
+    private static final int STOCK = 200;
+
+    private HikariDataSource dataSource;
+    private ProductRepositoryImpl productRepository;
+    private long productId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(env("DB_URL", "jdbc:mysql://localhost:3306/inventory_db"));
+        config.setUsername(env("DB_USERNAME", "root"));
+        config.setPassword(env("DB_PASSWORD", "0000"));
+        config.setMaximumPoolSize(THREADS);
+        config.setConnectionTimeout(2000);
+        try {
+            dataSource = new HikariDataSource(config);
+        } catch (RuntimeException e) {
+            assumeTrue(false, "No MySQL to run against: " + e.getMessage());
+        }
+        productRepository = new ProductRepositoryImpl(dataSource, new TableVersionRepositoryImpl(), null);
+
+        String sql = "INSERT INTO products (name, sku, price, stock_quantity, created_at) VALUES (?, ?, 1.00, ?, NOW())";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, "Concurrent sell test");
+            ps.setString(2, "CONCURRENT-SELL-" + System.nanoTime());
+            ps.setInt(3, STOCK);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                productId = keys.getLong(1);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (dataSource == null) {
+            return;
+        }
+        if (productId != 0) {
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement ps = conn.prepareStatement("DELETE FROM products WHERE id = ?")) {
+                ps.setLong(1, productId);
+                ps.executeUpdate();
+            }
+        }
+        dataSource.close();
+    }
+
+    @Test
+    void concurrentSellsNeverOversell() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < SELLS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    if (productRepository.adjustStock(productId, -1)) {
+                        sold.incrementAndGet();
+                    } else {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("%d sells of one product on %d threads in %.3f s: %.0f sells/s, %d sold, %d refused%n",
+                    SELLS, THREADS, seconds, SELLS / seconds, sold.get(), refused.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(STOCK, sold.get());
+        assertEquals(SELLS - STOCK, refused.get());
+        assertEquals(0, stockOf(productId));
+    }
+
+    private int stockOf(long id) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT stock_quantity FROM products WHERE id = ?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
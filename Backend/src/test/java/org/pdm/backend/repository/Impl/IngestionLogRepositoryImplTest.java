@@ -0,0 +1,161 @@
+package org.pdm.backend.repository.Impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pdm.backend.repository.IngestionLogRepository.LoggedEntry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IngestionLogRepositoryImplTest {
+
+    private static final int HEADER_BYTES = 16;
+
+    @TempDir
+    Path directory;
+
+    private IngestionLogRepositoryImpl log;
+
+    @AfterEach
+    void tearDown() {
+        if (log != null)
+            log.shutdown();
+    }
+
+    @Test
+    void reopenedLogKeepsEveryRecord() {
+        log = open(4096, 0);
+        assertEquals(1, log.append(bytes("first")));
+        assertEquals(2, log.append(bytes("second")));
+        assertEquals(2, log.durableSequence());
+        log.shutdown();
+
+        log = open(4096, 0);
+        assertEquals(2, log.lastSequence());
+        assertEquals(List.of("first", "second"), payloads(log.readAfter(0, 10)));
+        assertEquals(List.of("second"), payloads(log.readAfter(1, 10)));
+        assertEquals(3, log.append(bytes("third")));
+    }
+
+    @Test
+    void tornTailIsDiscardedAndOverwritten() throws IOException {
+        log = open(4096, 0);
+        log.append(bytes("one"));
+        log.append(bytes("two"));
+        log.append(bytes("three"));
+        log.shutdown();
+
+        // flip a payload byte of the last record, as if the crash hit before its page reached the disk
+        Path segment = onlySegment();
+        long third = 2L * HEADER_BYTES + "one".length() + "two".length();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(third + HEADER_BYTES);
+            file.write('X');
+        }
+
+        log = open(4096, 0);
+        assertEquals(2, log.lastSequence());
+        assertEquals(List.of("one", "two"), payloads(log.readAfter(0, 10)));
+
+        // the next record takes the torn one's place and survives another restart
+        assertEquals(3, log.append(bytes("3")));
+        log.shutdown();
+        log = open(4096, 0);
+        assertEquals(List.of("one", "two", "3"), payloads(log.readAfter(0, 10)));
+    }
+
+    @Test
+    void halfWrittenHeaderEndsTheSegment() throws IOException {
+        log = open(4096, 0);
+        log.append(bytes("kept"));
+        log.shutdown();
+
+        // a length with no matching checksum or sequence behind it
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(HEADER_BYTES + "kept".length());
+            file.writeInt(100);
+        }
+
+        log = open(4096, 0);
+        assertEquals(1, log.lastSequence());
+        assertEquals(2, log.append(bytes("next")));
+        assertEquals(List.of("kept", "next"), payloads(log.readAfter(0, 10)));
+    }
+
+    @Test
+    void recordsRollOverSegmentsAndAppliedOnesAreDeleted() throws IOException {
+        log = open(64, 0); // two 16-byte payloads per segment
+        for (int i = 1; i <= 5; i++) {
+            log.append(bytes(String.format("entry-%010d", i)));
+        }
+        assertEquals(3, log.segmentCount());
+        assertEquals(List.of(3L, 4L), sequences(log.readAfter(2, 2)));
+        assertEquals(List.of(5L), sequences(log.readAfter(4, 10)));
+        log.shutdown();
+
+        log = open(64, 0);
+        assertEquals(5, log.lastSequence());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sequences(log.readAfter(0, 10)));
+
+        log.truncateThrough(3); // the segment holding 3 also holds 4, so it stays
+        assertEquals(2, log.segmentCount());
+        assertEquals(List.of(3L, 4L, 5L), sequences(log.readAfter(2, 10)));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void sequencesContinueAboveTheFloor() {
+        log = open(4096, 41);
+        assertEquals(41, log.lastSequence());
+        assertEquals(42, log.append(bytes("after the floor")));
+        assertEquals(List.of(42L), sequences(log.readAfter(41, 10)));
+    }
+
+    private IngestionLogRepositoryImpl open(int segmentBytes, long sequenceFloor) {
+        IngestionLogRepositoryImpl opened = new IngestionLogRepositoryImpl();
+        ReflectionTestUtils.setField(opened, "directory", directory.toString());
+        ReflectionTestUtils.setField(opened, "segmentBytes", segmentBytes);
+        opened.open(sequenceFloor);
+        return opened;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> payloads(List<LoggedEntry> entries) {
+        List<String> payloads = new ArrayList<>();
+        for (LoggedEntry entry : entries) {
+            payloads.add(new String(entry.payload(), StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+
+    private static List<Long> sequences(List<LoggedEntry> entries) {
+        List<Long> sequences = new ArrayList<>();
+        for (LoggedEntry entry : entries) {
+            sequences.add(entry.sequence());
+        }
+        return sequences;
+    }
+}
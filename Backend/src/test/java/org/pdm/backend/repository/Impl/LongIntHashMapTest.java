@@ -0,0 +1,69 @@
+package org.pdm.backend.repository.Impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntHashMapTest {
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        // a small key range on a small table keeps probe runs long and wrapping past the end
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 200_000; step++) {
+            long key = 1 + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.getOrDefault(key, -1), map.remove(key), "remove " + key);
+                expected.remove(key);
+            } else {
+                int value = random.nextInt(1_000_000);
+                map.put(key, value);
+                expected.put(key, value);
+            }
+            if (step % 1000 == 0) {
+                for (long k = 1; k <= 300; k++) {
+                    assertEquals(expected.getOrDefault(k, -1), map.get(k), "get " + k);
+                }
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        int[] values = map.values();
+        Arrays.sort(values);
+        assertArrayEquals(expected.values().stream().mapToInt(Integer::intValue).sorted().toArray(), values);
+    }
+
+    @Test
+    void removeKeepsTheRestOfTheProbeRunReachable() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (long key = 1; key <= 64; key++) {
+            map.put(key, (int) key * 10);
+        }
+        for (long key = 1; key <= 64; key += 2) {
+            assertEquals((int) key * 10, map.remove(key));
+        }
+        for (long key = 1; key <= 64; key++) {
+            assertEquals(key % 2 == 0 ? (int) key * 10 : -1, map.get(key));
+        }
+        assertEquals(32, map.size());
+    }
+
+    @Test
+    void zeroAndNegativeKeysAreNeverPresent() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(7, 70);
+        assertEquals(-1, map.get(0));
+        assertEquals(-1, map.remove(0));
+        assertEquals(-1, map.get(-7));
+        assertEquals(1, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+    }
+}
@@ -0,0 +1,86 @@
+package org.pdm.backend.repository.Impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.model.Product;
+import org.pdm.backend.repository.ProductSearchRepository.Hits;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductSearchRepositoryImplTest {
+
+    private ProductSearchRepositoryImpl index;
+
+    @BeforeEach
+    void setUp() {
+        // no database: start from an empty, built index and feed it products directly
+        index = new ProductSearchRepositoryImpl(null);
+        ReflectionTestUtils.setField(index, "built", true);
+    }
+
+    @Test
+    void everyTokenIsRequiredAndMatchedAsAPrefix() {
+        index.index(product(1L, "Smart Phone X", "SP-1", null));
+        index.index(product(2L, "Smart Watch", "SW-1", null));
+        index.index(product(3L, "Phone Case", "PC-1", null));
+
+        assertEquals(List.of(1L), index.search("sma pho", 0, 10).productIds());
+        assertEquals(2, index.search("PHONE", 0, 10).total());
+        assertEquals(0, index.search("smart tablet", 0, 10).total());
+    }
+
+    @Test
+    void nameOutranksDescriptionAndExactTermOutranksCompletion() {
+        index.index(product(1L, "Desk", "D-1", "comes with a lamp"));
+        index.index(product(2L, "Lamp", "L-1", null));
+        index.index(product(3L, "Lamps", "L-2", null));
+
+        assertEquals(List.of(2L, 3L, 1L), index.search("lamp", 0, 10).productIds());
+    }
+
+    @Test
+    void shortPrefixFindsEveryCompletion() {
+        for (long id = 1; id <= 150; id++) {
+            index.index(product(id, "s" + id + "term", "SKU" + id, null));
+        }
+        Hits hits = index.search("s", 0, 5);
+        assertEquals(150, hits.total());
+        assertEquals(5, hits.productIds().size());
+    }
+
+    @Test
+    void updatesReplaceOldTermsAndRemovalsDropTheProduct() {
+        index.index(product(1L, "Red Chair", "C-1", null));
+        index.index(product(2L, "Red Table", "T-1", null));
+
+        index.index(product(1L, "Blue Chair", "C-1", null));
+        assertEquals(List.of(2L), index.search("red", 0, 10).productIds());
+        assertEquals(List.of(1L), index.search("blue", 0, 10).productIds());
+
+        index.remove(2L);
+        assertEquals(0, index.search("red", 0, 10).total());
+        assertEquals(1, index.search("c", 0, 10).total());
+    }
+
+    @Test
+    void pagesFollowTheRanking() {
+        for (long id = 1; id <= 7; id++) {
+            index.index(product(id, "Bolt", "B-" + id, null));
+        }
+        Hits second = index.search("bolt", 1, 3);
+        assertEquals(7, second.total());
+        assertEquals(List.of(4L, 5L, 6L), second.productIds()); // equal scores fall back to id order
+    }
+
+    private static Product product(Long id, String name, String sku, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setSku(sku);
+        product.setDescription(description);
+        return product;
+    }
+}
@@ -0,0 +1,125 @@
+package org.pdm.backend.repository.Impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.model.Product;
+import org.pdm.backend.model.ProductSuggestion;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductSuggestRepositoryImplTest {
+
+    private ProductSuggestRepositoryImpl suggestions;
+
+    @BeforeEach
+    void setUp() {
+        // no database: start from an empty, built trie and feed it products directly
+        suggestions = new ProductSuggestRepositoryImpl(null);
+        ReflectionTestUtils.setField(suggestions, "built", true);
+    }
+
+    @Test
+    void splitEdgesKeepEveryKeyReachable() {
+        suggestions.index(product(1L, "Chair", "CH-1"));
+        suggestions.index(product(2L, "Chalk", "CK-1"));
+        suggestions.index(product(3L, "Ch", "X-1"));
+
+        assertEquals(List.of(3L, 1L, 2L), ids("ch"));
+        assertEquals(List.of(1L, 2L), ids("cha"));
+        assertEquals(List.of(1L), ids("chai"));
+        assertEquals(List.of(2L), ids("CHALK"));
+        assertEquals(List.of(), ids("chairs"));
+        assertEquals(List.of(), ids("chb"));
+    }
+
+    @Test
+    void laterWordsAndSkuAreKeys() {
+        suggestions.index(product(1L, "Office  Desk Lamp", "OL-7"));
+
+        assertEquals(List.of(1L), ids("desk l"));
+        assertEquals(List.of(1L), ids("lamp"));
+        assertEquals(List.of(1L), ids("ol-"));
+        assertEquals(List.of(), ids("esk"));
+    }
+
+    @Test
+    void eraseDropsTheProductAndPrunesItsNodes() {
+        suggestions.index(product(1L, "Chair", "CH-1"));
+        suggestions.index(product(2L, "Chalk", "CK-1"));
+
+        suggestions.remove(1L);
+        assertEquals(List.of(), ids("chai"));
+        assertEquals(List.of(2L), ids("cha"));
+        assertEquals(List.of(), ids("ch-"));
+
+        suggestions.remove(2L);
+        assertEquals(List.of(), ids("c"));
+    }
+
+    @Test
+    void renameReplacesTheOldKeys() {
+        suggestions.index(product(1L, "Red Chair", "C-1"));
+        suggestions.index(product(1L, "Blue Chair", "C-1"));
+
+        assertEquals(List.of(), ids("red"));
+        assertEquals(List.of(1L), ids("blue"));
+        assertEquals(List.of(1L), ids("chair"));
+    }
+
+    @Test
+    void topListFollowsSalesAndRefillsAfterErase() {
+        for (long id = 1; id <= 12; id++) {
+            suggestions.index(product(id, String.format("Bolt %02d", id), "B-" + id));
+        }
+        // without sales the names decide
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), ids("bolt"));
+
+        suggestions.recordSales(Map.of(12L, 5L, 11L, 3L));
+        List<Long> top = ids("bolt");
+        assertEquals(List.of(12L, 11L, 1L, 2L), top.subList(0, 4));
+        assertEquals(10, top.size());
+
+        // sales only add up, so 11 passes 12
+        suggestions.recordSales(Map.of(11L, 4L));
+        assertEquals(List.of(11L, 12L), ids("bolt").subList(0, 2));
+        assertEquals(7L, suggestions.suggest("b-11", 10).get(0).getSalesVolume());
+
+        // dropping a listed product pulls up the best one that did not make the list
+        suggestions.remove(11L);
+        assertEquals(List.of(12L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), ids("bolt"));
+    }
+
+    @Test
+    void limitCapsTheSuggestions() {
+        for (long id = 1; id <= 5; id++) {
+            suggestions.index(product(id, "Nut " + id, "N-" + id));
+        }
+        assertEquals(List.of(1L, 2L), ids("nut", 2));
+        assertEquals(List.of(), ids("  ", 5));
+    }
+
+    private List<Long> ids(String prefix) {
+        return ids(prefix, 10);
+    }
+
+    private List<Long> ids(String prefix, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (ProductSuggestion suggestion : suggestions.suggest(prefix, limit)) {
+            ids.add(suggestion.getId());
+        }
+        return ids;
+    }
+
+    private static Product product(Long id, String name, String sku) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setSku(sku);
+        return product;
+    }
+}
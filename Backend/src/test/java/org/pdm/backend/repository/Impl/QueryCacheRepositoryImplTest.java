@@ -0,0 +1,116 @@
+package org.pdm.backend.repository.Impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.model.PagedResult;
+import org.pdm.backend.model.Product;
+import org.pdm.backend.model.Transaction;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class QueryCacheRepositoryImplTest {
+
+    private static final List<String> TABLES = List.of("products");
+
+    private TableVersionRepositoryImpl tableVersionRepository;
+    private QueryCacheRepositoryImpl queryCacheRepository;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        tableVersionRepository = new TableVersionRepositoryImpl();
+        queryCacheRepository = new QueryCacheRepositoryImpl(tableVersionRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queryCacheRepository, "repositories", Set.of("products"));
+        ReflectionTestUtils.setField(queryCacheRepository, "maxEntries", 10);
+        ReflectionTestUtils.setField(queryCacheRepository, "ttlSeconds", 60L);
+        queryCacheRepository.registerMeters();
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void everyCallerGetsItsOwnCopy() {
+        List<Product> first = readProducts();
+        first.get(0).setName("Renamed");
+        first.add(product(2L, "Table"));
+
+        List<Product> second = readProducts();
+        assertEquals(1, loads.get());
+        assertEquals(1, second.size());
+        assertEquals("Chair", second.get(0).getName());
+        assertNotSame(second.get(0), readProducts().get(0));
+    }
+
+    @Test
+    void pagesAndAttachedProductsAreCopied() {
+        Supplier<PagedResult<Transaction>> loader = () -> {
+            loads.incrementAndGet();
+            Transaction transaction = new Transaction();
+            transaction.setId(1L);
+            transaction.setProduct(product(1L, "Chair"));
+            return new PagedResult<>(new ArrayList<>(List.of(transaction)), 1L, false, false);
+        };
+        PagedResult<Transaction> first = queryCacheRepository.read("products", TABLES, "transactions page", List.of(),
+                loader, QueryCacheRepositoryImpl.pageCopied(TransactionRepositoryImpl::copyOf));
+        first.getItems().get(0).getProduct().setName("Renamed");
+
+        PagedResult<Transaction> second = queryCacheRepository.read("products", TABLES, "transactions page", List.of(),
+                loader, QueryCacheRepositoryImpl.pageCopied(TransactionRepositoryImpl::copyOf));
+        assertEquals(1, loads.get());
+        assertEquals("Chair", second.getItems().get(0).getProduct().getName());
+        assertEquals(1L, second.getTotal());
+    }
+
+    @Test
+    void readsInAReadOnlyTransactionBypassTheCache() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readProducts();
+        readProducts();
+        assertEquals(2, loads.get());
+
+        // nothing read from the snapshot was kept
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        readProducts();
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void writeToATableDropsItsEntries() {
+        readProducts();
+        tableVersionRepository.bump("products");
+        readProducts();
+        assertEquals(2, loads.get());
+    }
+
+    private List<Product> readProducts() {
+        return queryCacheRepository.read("products", TABLES, "SELECT products", List.of(), () -> {
+            loads.incrementAndGet();
+            return new ArrayList<>(List.of(product(1L, "Chair")));
+        }, QueryCacheRepositoryImpl.eachCopied(product -> product.toBuilder().build()));
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+}
@@ -0,0 +1,70 @@
+package org.pdm.backend.repository.Impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.model.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResidentProductRepositoryImplTest {
+
+    private ProductRepositoryImpl database;
+    private ResidentProductRepositoryImpl catalog;
+
+    @BeforeEach
+    void setUp() {
+        database = mock(ProductRepositoryImpl.class);
+        when(database.findAll(null)).thenReturn(List.of(
+                product(1L, 10L), product(2L, 10L), product(3L, 20L)));
+        catalog = new ResidentProductRepositoryImpl(database);
+    }
+
+    @Test
+    void deletingACategoryEvictsItsProducts() {
+        assertEquals(List.of(1L, 2L), ids(catalog.findAll(10L))); // loads the catalog
+
+        when(database.deleteByCategoryId(10L)).thenReturn(List.of(1L, 2L));
+        assertEquals(List.of(1L, 2L), catalog.deleteByCategoryId(10L));
+
+        assertTrue(catalog.findById(1L).isEmpty());
+        assertTrue(catalog.findById(2L).isEmpty());
+        assertEquals(List.of(), catalog.findAll(10L));
+        assertEquals(List.of(3L), ids(catalog.findAll(null)));
+        assertEquals(List.of(3L), ids(catalog.findAllByIds(List.of(1L, 2L, 3L))));
+    }
+
+    @Test
+    void freedSlotsAreReused() {
+        catalog.findAll(null);
+        when(database.deleteByCategoryId(10L)).thenReturn(List.of(1L, 2L));
+        catalog.deleteByCategoryId(10L);
+
+        when(database.save(any())).thenAnswer(call -> call.getArgument(0));
+        catalog.save(product(4L, 20L));
+
+        assertEquals(List.of(3L, 4L), ids(catalog.findAll(20L)));
+        assertEquals("Product 4", catalog.findById(4L).orElseThrow().getName());
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static Product product(Long id, Long categoryId) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setSku("SKU-" + id);
+        product.setPrice(new BigDecimal("1.50"));
+        product.setStockQuantity(5);
+        product.setCategoryId(categoryId);
+        return product;
+    }
+}
@@ -0,0 +1,234 @@
+package org.pdm.backend.repository.Impl;
+
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.enums.TransactionStatus;
+import org.pdm.backend.enums.TransactionType;
+import org.pdm.backend.enums.UserRole;
+import org.pdm.backend.model.Product;
+import org.pdm.backend.model.Supplier;
+import org.pdm.backend.model.Transaction;
+import org.pdm.backend.model.User;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The mappers read columns by position; these feed them a row whose ordinals resolve through the
+ * column lists the repositories select, so a column moved in one but not the other hands a mapper
+ * the wrong value or the wrong type.
+ */
+class RowMapperTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 9, 30);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 5, 2, 10, 0);
+
+    @Test
+    void transactionListColumns() throws SQLException {
+        Transaction transaction = TransactionRepositoryImpl.mapToTransaction(
+                row(TransactionRepositoryImpl.LIST_COLUMNS, transactionValues()));
+
+        assertListFields(transaction);
+        assertNull(transaction.getDescription());
+    }
+
+    @Test
+    void transactionDetailColumnsWithProductSupplierAndUser() throws SQLException {
+        Map<String, Object> values = transactionValues();
+        values.putAll(Map.of("t.description", "restock", "t.note", "urgent", "t.update_at", UPDATED,
+                "t.user_id", 3L, "t.supplier_id", 4L));
+        values.putAll(Map.of("p.id", 2L, "p.name", "Chair", "p.sku", "CH-1", "p.price", new BigDecimal("19.99"),
+                "p.stock_quantity", 40, "p.description", "oak", "p.expiry_date", UPDATED, "p.image_url", "chair.png",
+                "p.category_id", 6L, "p.created_at", CREATED));
+        values.putAll(Map.of("s.id", 4L, "s.name", "Acme", "s.contact_info", "sales@acme.test", "s.address", "1 Main St"));
+        values.putAll(Map.of("u.id", 3L, "u.name", "Ann", "u.email", "ann@test", "u.phone_number", "555",
+                "u.role", "MANAGER", "u.created_at", CREATED));
+
+        Transaction transaction = TransactionRepositoryImpl.mapToTransactionDetail(
+                row(TransactionRepositoryImpl.FIND_BY_ID_SQL, values));
+
+        assertListFields(transaction);
+        assertEquals("restock", transaction.getDescription());
+        assertEquals("urgent", transaction.getNote());
+        assertEquals(UPDATED, transaction.getUpdateAt());
+        assertEquals(3L, transaction.getUserId());
+        assertEquals(4L, transaction.getSupplierId());
+
+        Product product = transaction.getProduct();
+        assertEquals(2L, product.getId());
+        assertEquals("Chair", product.getName());
+        assertEquals("CH-1", product.getSku());
+        assertEquals(new BigDecimal("19.99"), product.getPrice());
+        assertEquals(40, product.getStockQuantity());
+        assertEquals("oak", product.getDescription());
+        assertEquals(UPDATED, product.getExpiryDate());
+        assertEquals("chair.png", product.getImageUrl());
+        assertEquals(6L, product.getCategoryId());
+        assertEquals(CREATED, product.getCreatedAt());
+
+        Supplier supplier = transaction.getSupplier();
+        assertEquals(4L, supplier.getId());
+        assertEquals("Acme", supplier.getName());
+        assertEquals("sales@acme.test", supplier.getContactInfo());
+        assertEquals("1 Main St", supplier.getAddress());
+
+        User user = transaction.getUser();
+        assertEquals(3L, user.getId());
+        assertEquals("Ann", user.getName());
+        assertEquals("ann@test", user.getEmail());
+        assertEquals("555", user.getPhoneNumber());
+        assertEquals(UserRole.MANAGER, user.getRole());
+        assertEquals(CREATED, user.getCreatedAt());
+        assertNull(user.getPassword());
+    }
+
+    @Test
+    void transactionDetailWithoutJoinedRows() throws SQLException {
+        Map<String, Object> values = transactionValues();
+        for (String column : columns(TransactionRepositoryImpl.FIND_BY_ID_SQL)) {
+            values.putIfAbsent(column, null);
+        }
+
+        Transaction transaction = TransactionRepositoryImpl.mapToTransactionDetail(
+                row(TransactionRepositoryImpl.FIND_BY_ID_SQL, values));
+
+        assertListFields(transaction);
+        assertNull(transaction.getProduct());
+        assertNull(transaction.getSupplier());
+        assertNull(transaction.getUser());
+    }
+
+    @Test
+    void productColumns() throws SQLException {
+        Map<String, Object> values = new HashMap<>(Map.of("id", 2L, "name", "Chair", "sku", "CH-1",
+                "price", new BigDecimal("19.99"), "stock_quantity", 40, "description", "oak", "image_url", "chair.png",
+                "category_id", 6L, "expiry_date", UPDATED, "created_at", CREATED));
+
+        Product product = ProductRepositoryImpl.mapRowToProduct(row(ProductRepositoryImpl.COLUMNS, values));
+        assertEquals(2L, product.getId());
+        assertEquals("Chair", product.getName());
+        assertEquals("CH-1", product.getSku());
+        assertEquals(new BigDecimal("19.99"), product.getPrice());
+        assertEquals(40, product.getStockQuantity());
+        assertEquals("oak", product.getDescription());
+        assertEquals("chair.png", product.getImageUrl());
+        assertEquals(6L, product.getCategoryId());
+        assertEquals(UPDATED, product.getExpiryDate());
+        assertEquals(CREATED, product.getCreatedAt());
+
+        Product summary = ProductRepositoryImpl.mapRowToProductSummary(row(ProductRepositoryImpl.SUMMARY_COLUMNS, values));
+        assertEquals(2L, summary.getId());
+        assertEquals("Chair", summary.getName());
+        assertEquals("CH-1", summary.getSku());
+        assertEquals(new BigDecimal("19.99"), summary.getPrice());
+        assertEquals(40, summary.getStockQuantity());
+        assertNull(summary.getDescription());
+    }
+
+    @Test
+    void userColumns() throws SQLException {
+        Map<String, Object> values = new HashMap<>(Map.of("id", 3L, "name", "Ann", "email", "ann@test",
+                "phone_number", "555", "role", "ADMIN", "created_at", CREATED, "password", "hash"));
+
+        User listed = UserRepositoryImpl.mapRowToUsers(row(UserRepositoryImpl.LIST_COLUMNS, values), false);
+        assertEquals(3L, listed.getId());
+        assertEquals("Ann", listed.getName());
+        assertEquals("ann@test", listed.getEmail());
+        assertEquals("555", listed.getPhoneNumber());
+        assertEquals(UserRole.ADMIN, listed.getRole());
+        assertEquals(CREATED, listed.getCreatedAt());
+        assertNull(listed.getPassword());
+
+        User detailed = UserRepositoryImpl.mapRowToUsers(row(UserRepositoryImpl.FIND_BY_EMAIL_SQL, values), true);
+        assertEquals("ann@test", detailed.getEmail());
+        assertEquals("hash", detailed.getPassword());
+    }
+
+    @Test
+    void supplierColumns() throws SQLException {
+        Map<String, Object> values = new HashMap<>(Map.of("id", 4L, "name", "Acme",
+                "contact_info", "sales@acme.test", "address", "1 Main St"));
+
+        Supplier supplier = SupplierRepositoryImpl.mapRowToSupplier(row(SupplierRepositoryImpl.COLUMNS, values));
+        assertEquals(4L, supplier.getId());
+        assertEquals("Acme", supplier.getName());
+        assertEquals("sales@acme.test", supplier.getContactInfo());
+        assertEquals("1 Main St", supplier.getAddress());
+    }
+
+    private static Map<String, Object> transactionValues() {
+        return new HashMap<>(Map.of("t.id", 1L, "t.total_products", 5, "t.total_price", new BigDecimal("99.95"),
+                "t.transaction_type", "SALE", "t.status", "COMPLETED", "t.product_id", 2L, "t.created_at", CREATED));
+    }
+
+    private static void assertListFields(Transaction transaction) {
+        assertEquals(1L, transaction.getId());
+        assertEquals(5, transaction.getTotalProducts());
+        assertEquals(new BigDecimal("99.95"), transaction.getTotalPrice());
+        assertEquals(TransactionType.SALE, transaction.getTransactionType());
+        assertEquals(TransactionStatus.COMPLETED, transaction.getStatus());
+        assertEquals(2L, transaction.getProductId());
+        assertEquals(CREATED, transaction.getCreatedAt());
+    }
+
+    // the select list of a statement, or a bare column list
+    private static List<String> columns(String sql) {
+        String list = sql.startsWith("SELECT ") ? sql.substring("SELECT ".length(), sql.indexOf(" FROM ")) : sql;
+        return Arrays.stream(list.split(",")).map(String::trim).toList();
+    }
+
+    /**
+     * A one-row result set of the given columns. Each getter must ask for the Java type the value was
+     * given in; nulls read as SQL NULL, with {@code wasNull} set the way JDBC does it.
+     */
+    private static ResultSet row(String sql, Map<String, Object> values) {
+        List<String> columns = columns(sql);
+        boolean[] lastWasNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return lastWasNull[0];
+                    }
+                    if (args == null || !(args[0] instanceof Integer ordinal)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    String column = columns.get(ordinal - 1);
+                    if (!values.containsKey(column)) {
+                        throw new AssertionError("no value given for column " + column);
+                    }
+                    Object value = values.get(column);
+                    lastWasNull[0] = value == null;
+                    Class<?> type = switch (method.getName()) {
+                        case "getLong" -> Long.class;
+                        case "getInt" -> Integer.class;
+                        case "getString" -> String.class;
+                        case "getBigDecimal" -> BigDecimal.class;
+                        case "getObject" -> (Class<?>) args[1];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                    if (value == null && method.getReturnType() == long.class) {
+                        return 0L;
+                    }
+                    if (value == null && method.getReturnType() == int.class) {
+                        return 0;
+                    }
+                    if (value == null) {
+                        return null;
+                    }
+                    if (!type.isInstance(value)) {
+                        throw new AssertionError(method.getName() + "(" + ordinal + ") read column " + column
+                                + " holding " + value.getClass().getSimpleName());
+                    }
+                    return value;
+                });
+    }
+}
@@ -0,0 +1,81 @@
+package org.pdm.backend.repository.Impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.model.Supplier;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SupplierSearchRepositoryImplTest {
+
+    private SupplierSearchRepositoryImpl index;
+
+    @BeforeEach
+    void setUp() {
+        // no database: start from an empty, built index and feed it suppliers directly
+        index = new SupplierSearchRepositoryImpl(null);
+        ReflectionTestUtils.setField(index, "similarityThreshold", 0.3f);
+        ReflectionTestUtils.setField(index, "built", true);
+    }
+
+    @Test
+    void typosStillMatch() {
+        index.index(supplier(1L, "Acme Supply Co", "sales@acme.test", "1 Main St"));
+        index.index(supplier(2L, "Globex", "info@globex.test", "9 Elm Rd"));
+
+        assertEquals(List.of(1L), index.search("acme suply"));
+        assertEquals(List.of(1L), index.search("ACME-SUPPLY"));
+        assertEquals(List.of(), index.search("zzqx"));
+        assertEquals(List.of(), index.search(" - "));
+    }
+
+    @Test
+    void nameOutweighsOtherFields() {
+        index.index(supplier(1L, "Harbor Freight", "ops@freight.test", "Northwind Road"));
+        index.index(supplier(2L, "Northwind", "ops@nw.test", "5 Dock St"));
+
+        assertEquals(List.of(2L, 1L), index.search("northwind"));
+        assertEquals(List.of(2L, 1L), index.search("nortwind"));
+    }
+
+    @Test
+    void containingTheQueryOutranksCloserSpelling() {
+        index.index(supplier(1L, "Bolk", null, null));
+        index.index(supplier(2L, "Megabolt", null, null));
+
+        // both share three of the five trigrams of "bolt", but only Megabolt has it as-is
+        assertEquals(List.of(2L, 1L), index.search("bolt"));
+    }
+
+    @Test
+    void equalScoresFallBackToName() {
+        index.index(supplier(3L, "Zeta Parts", null, null));
+        index.index(supplier(1L, "Alpha Parts", null, null));
+
+        assertEquals(List.of(1L, 3L), index.search("parts"));
+    }
+
+    @Test
+    void updatesAndRemovalsAreSearchable() {
+        index.index(supplier(1L, "Old Name", "a@b.test", "Somewhere"));
+        index.index(supplier(1L, "Fresh Foods", "a@b.test", "Somewhere"));
+
+        assertEquals(List.of(), index.search("old name"));
+        assertEquals(List.of(1L), index.search("fresh"));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("fresh"));
+    }
+
+    private static Supplier supplier(Long id, String name, String contactInfo, String address) {
+        Supplier supplier = new Supplier();
+        supplier.setId(id);
+        supplier.setName(name);
+        supplier.setContactInfo(contactInfo);
+        supplier.setAddress(address);
+        return supplier;
+    }
+}
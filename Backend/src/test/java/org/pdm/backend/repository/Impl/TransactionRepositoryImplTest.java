@@ -0,0 +1,61 @@
+package org.pdm.backend.repository.Impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.enums.TransactionType;
+import org.pdm.backend.wrappers.TransactionFilter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionRepositoryImplTest {
+
+    private TransactionRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        // only builds statements here, nothing reaches a database
+        repository = new TransactionRepositoryImpl(null, null, null, null, null, null, null);
+        ReflectionTestUtils.setField(repository, "minTokenSize", 3);
+    }
+
+    @Test
+    void shortTextFallsBackToLikeWithoutTypeOrStatus() {
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = repository.conditions(TransactionFilter.builder().text("SA").build(), params);
+
+        assertEquals(1, conditions.size());
+        String text = conditions.get(0);
+        assertTrue(text.contains("t.description LIKE ?"));
+        assertFalse(text.contains("transaction_type"));
+        assertFalse(text.contains("status"));
+        assertEquals(List.of("%SA%", "%SA%", "%SA%"), params);
+        assertEquals(params.size(), text.chars().filter(c -> c == '?').count());
+    }
+
+    @Test
+    void typeStillNarrowsTheShortTextMatches() {
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = repository.conditions(
+                TransactionFilter.builder().text("SA").type(TransactionType.SALE).build(), params);
+
+        assertEquals(2, conditions.size());
+        assertEquals("t.transaction_type = ?", conditions.get(1));
+        assertEquals(List.of("%SA%", "%SA%", "%SA%", "SALE"), params);
+    }
+
+    @Test
+    void indexableTextUsesFullText() {
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = repository.conditions(TransactionFilter.builder().text("Sale").build(), params);
+
+        assertTrue(conditions.get(0).startsWith("(MATCH(t.description, t.note)"));
+        assertFalse(conditions.get(0).contains("LIKE"));
+        assertEquals(List.of("+sale*", "+sale*"), params);
+    }
+}
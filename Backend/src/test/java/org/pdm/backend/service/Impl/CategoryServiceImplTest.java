@@ -0,0 +1,92 @@
+package org.pdm.backend.service.Impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.pdm.backend.model.Category;
+import org.pdm.backend.model.Product;
+import org.pdm.backend.model.ProductSuggestion;
+import org.pdm.backend.repository.CategoryRepository;
+import org.pdm.backend.repository.ProductRepository;
+import org.pdm.backend.repository.Impl.ProductSearchRepositoryImpl;
+import org.pdm.backend.repository.Impl.ProductSuggestRepositoryImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryServiceImplTest {
+
+    private CategoryRepository categoryRepository;
+    private ProductRepository productRepository;
+    private ProductSearchRepositoryImpl productSearchRepository;
+    private ProductSuggestRepositoryImpl productSuggestRepository;
+    private CategoryServiceImpl categoryService;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        productRepository = mock(ProductRepository.class);
+        // the in-memory indexes themselves, empty and built, fed products directly
+        productSearchRepository = new ProductSearchRepositoryImpl(null);
+        ReflectionTestUtils.setField(productSearchRepository, "built", true);
+        productSuggestRepository = new ProductSuggestRepositoryImpl(null);
+        ReflectionTestUtils.setField(productSuggestRepository, "built", true);
+        categoryService = new CategoryServiceImpl(categoryRepository, productRepository,
+                productSearchRepository, productSuggestRepository);
+    }
+
+    @Test
+    void deletingACategoryDeletesItsProductsFirst() {
+        when(categoryRepository.findById(10L)).thenReturn(Optional.of(new Category()));
+        when(productRepository.deleteByCategoryId(10L)).thenReturn(List.of(1L, 2L));
+
+        categoryService.deleteCategory(10L);
+
+        InOrder order = inOrder(productRepository, categoryRepository);
+        order.verify(productRepository).deleteByCategoryId(10L);
+        order.verify(categoryRepository).deleteById(10L);
+    }
+
+    @Test
+    void deletingACategoryDropsItsProductsFromSearch() {
+        productSearchRepository.index(product(1L, "Oak Chair"));
+        productSearchRepository.index(product(2L, "Oak Table"));
+        productSearchRepository.index(product(3L, "Oak Shelf"));
+        when(categoryRepository.findById(10L)).thenReturn(Optional.of(new Category()));
+        when(productRepository.deleteByCategoryId(10L)).thenReturn(List.of(1L, 2L));
+
+        categoryService.deleteCategory(10L);
+
+        assertEquals(1, productSearchRepository.search("oak", 0, 10).total());
+        assertEquals(List.of(3L), productSearchRepository.search("oak", 0, 10).productIds());
+    }
+
+    @Test
+    void deletingACategoryDropsItsProductsFromSuggestions() {
+        productSuggestRepository.index(product(1L, "Oak Chair"));
+        productSuggestRepository.index(product(2L, "Oak Table"));
+        productSuggestRepository.index(product(3L, "Oak Shelf"));
+        when(categoryRepository.findById(10L)).thenReturn(Optional.of(new Category()));
+        when(productRepository.deleteByCategoryId(10L)).thenReturn(List.of(1L, 2L));
+
+        categoryService.deleteCategory(10L);
+
+        assertEquals(List.of(3L), productSuggestRepository.suggest("oak", 10).stream()
+                .map(ProductSuggestion::getId).toList());
+        assertEquals(List.of(), productSuggestRepository.suggest("chair", 10));
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setSku("SKU-" + id);
+        return product;
+    }
+}
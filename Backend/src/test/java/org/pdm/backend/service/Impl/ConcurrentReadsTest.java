@@ -0,0 +1,98 @@
+package org.pdm.backend.service.Impl;
+
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.exception.DeadlineExceededException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentReadsTest {
+
+    @Test
+    void readsRunSideBySideAndResultsFollowJoin() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        try (ConcurrentReads reads = ConcurrentReads.open(Duration.ofSeconds(5))) {
+            ConcurrentReads.Forked<String> first = reads.fork(() -> {
+                bothStarted.countDown();
+                bothStarted.await(); // only returns if the other read runs at the same time
+                return "first";
+            });
+            ConcurrentReads.Forked<Integer> second = reads.fork(() -> {
+                bothStarted.countDown();
+                bothStarted.await();
+                return 2;
+            });
+            assertThrows(IllegalStateException.class, first::get);
+
+            reads.join();
+            assertEquals("first", first.get());
+            assertEquals(2, second.get());
+        }
+    }
+
+    @Test
+    void passedDeadlineInterruptsTheSlowRead() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        long started = System.nanoTime();
+        try (ConcurrentReads reads = ConcurrentReads.open(Duration.ofMillis(100))) {
+            reads.fork(() -> "fast");
+            ConcurrentReads.Forked<String> slow = reads.fork(() -> {
+                try {
+                    Thread.sleep(30_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return "slow";
+            });
+
+            assertThrows(DeadlineExceededException.class, reads::join);
+            assertThrows(IllegalStateException.class, slow::get);
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void firstFailureIsRethrownAndCancelsTheRest() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("Product Not Found");
+        try (ConcurrentReads reads = ConcurrentReads.open(Duration.ofSeconds(30))) {
+            reads.fork(() -> {
+                try {
+                    Thread.sleep(30_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return "never";
+            });
+            reads.fork(() -> {
+                throw failure;
+            });
+
+            assertSame(failure, assertThrows(IllegalArgumentException.class, reads::join));
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void checkedFailuresAreWrapped() {
+        try (ConcurrentReads reads = ConcurrentReads.open(Duration.ofSeconds(5))) {
+            reads.fork(() -> {
+                throw new IOException("disk");
+            });
+
+            IllegalStateException thrown = assertThrows(IllegalStateException.class, reads::join);
+            assertInstanceOf(IOException.class, thrown.getCause());
+        }
+    }
+}
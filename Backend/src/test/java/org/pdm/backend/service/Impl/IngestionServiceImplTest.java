@@ -0,0 +1,146 @@
+package org.pdm.backend.service.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.pdm.backend.enums.IngestionState;
+import org.pdm.backend.enums.TransactionType;
+import org.pdm.backend.model.IngestionOutcome;
+import org.pdm.backend.repository.IngestionCheckpointRepository;
+import org.pdm.backend.repository.IngestionLogRepository;
+import org.pdm.backend.repository.IngestionLogRepository.LoggedEntry;
+import org.pdm.backend.repository.IngestionOutcomeRepository;
+import org.pdm.backend.repository.SupplierRepository;
+import org.pdm.backend.repository.TransactionRepository;
+import org.pdm.backend.repository.TransactionRollupRepository;
+import org.pdm.backend.repository.Impl.ProductRepositoryImpl;
+import org.pdm.backend.repository.Impl.TableVersionRepositoryImpl;
+import org.pdm.backend.service.UserService;
+import org.pdm.backend.wrappers.BatchTransactionLine;
+import org.pdm.backend.wrappers.IngestionEntry;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestionServiceImplTest {
+
+    private IngestionLogRepository ingestionLogRepository;
+    private IngestionCheckpointRepository ingestionCheckpointRepository;
+    private IngestionOutcomeRepository ingestionOutcomeRepository;
+    private PreparedStatement productLookup;
+    private IngestionServiceImpl ingestionService;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ingestionLogRepository = mock(IngestionLogRepository.class);
+        ingestionCheckpointRepository = mock(IngestionCheckpointRepository.class);
+        ingestionOutcomeRepository = mock(IngestionOutcomeRepository.class);
+
+        // the real batch path down to JDBC, with the product lookup's statement under the test's control
+        productLookup = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(productLookup);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl(dataSource, new TableVersionRepositoryImpl(), null);
+        TransactionServiceImpl transactionService = new TransactionServiceImpl(mock(TransactionRepository.class),
+                mock(SupplierRepository.class), mock(UserService.class), productRepository,
+                mock(TransactionRollupRepository.class));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ingestionService = new IngestionServiceImpl(ingestionLogRepository, ingestionCheckpointRepository,
+                transactionService, mock(UserService.class), objectMapper, transactionManager,
+                ingestionOutcomeRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestionService, "applyBatchSize", 500);
+
+        BatchTransactionLine line = BatchTransactionLine.builder()
+                .transactionType(TransactionType.SALE).productId(7L).quantity(1).build();
+        byte[] payload = objectMapper.writeValueAsBytes(new IngestionEntry(3L, line));
+        when(ingestionLogRepository.readAfter(0L, 500)).thenReturn(List.of(new LoggedEntry(1L, payload)));
+    }
+
+    @Test
+    void lockTimeoutInTheLookupIsRetriedNotRejected() throws SQLException {
+        when(productLookup.executeQuery()).thenThrow(
+                new SQLException("Lock wait timeout exceeded; try restarting transaction", "HY000", 1205));
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> ingestionService.applyPending(transactionTemplate));
+        assertEquals(1205, ((SQLException) thrown.getCause()).getErrorCode());
+
+        assertEquals(0L, ReflectionTestUtils.getField(ingestionService, "appliedSequence"));
+        verify(ingestionCheckpointRepository, never()).saveAppliedSequence(anyLong());
+        verify(ingestionOutcomeRepository, never()).saveAll(any());
+        verify(ingestionLogRepository, never()).truncateThrough(anyLong());
+    }
+
+    @Test
+    void missingProductIsRejectedAndPassed() throws SQLException {
+        ResultSet noRows = mock(ResultSet.class);
+        when(productLookup.executeQuery()).thenReturn(noRows);
+
+        assertTrue(ingestionService.applyPending(transactionTemplate));
+
+        assertEquals(1L, ReflectionTestUtils.getField(ingestionService, "appliedSequence"));
+        verify(ingestionCheckpointRepository).saveAppliedSequence(1L);
+        ArgumentCaptor<List<IngestionOutcome>> outcomes = ArgumentCaptor.captor();
+        verify(ingestionOutcomeRepository).saveAll(outcomes.capture());
+        assertEquals(1, outcomes.getValue().size());
+        assertEquals(IngestionState.REJECTED, outcomes.getValue().get(0).getState());
+        assertEquals("Product Not Found", outcomes.getValue().get(0).getMessage());
+        verify(ingestionLogRepository).truncateThrough(1L);
+    }
+
+    @Test
+    void connectionAndLockFailuresAreRetried() {
+        assertTrue(IngestionServiceImpl.isTransient(new CannotAcquireLockException("deadlock")));
+        assertTrue(IngestionServiceImpl.isTransient(new DataAccessResourceFailureException("down")));
+        assertTrue(IngestionServiceImpl.isTransient(new CannotCreateTransactionException("no connection")));
+        assertTrue(IngestionServiceImpl.isTransient(new RuntimeException(new SQLNonTransientConnectionException("closed"))));
+        // the way the repositories wrap a SQLException
+        assertTrue(IngestionServiceImpl.isTransient(new RuntimeException(new SQLException("Communications link failure", "08S01"))));
+        assertTrue(IngestionServiceImpl.isTransient(new RuntimeException(new SQLException("Deadlock found", "40001"))));
+        assertTrue(IngestionServiceImpl.isTransient(new RuntimeException(new SQLException("Lock wait timeout", "HY000", 1205))));
+    }
+
+    @Test
+    void failuresOfTheEntryItselfAreDeadLettered() {
+        assertFalse(IngestionServiceImpl.isTransient(new IllegalArgumentException("Insufficient Stock")));
+        assertFalse(IngestionServiceImpl.isTransient(new DataIntegrityViolationException("duplicate")));
+        assertFalse(IngestionServiceImpl.isTransient(new RuntimeException(new SQLIntegrityConstraintViolationException("fk", "23000"))));
+        assertFalse(IngestionServiceImpl.isTransient(new RuntimeException(new SQLException("no state"))));
+    }
+}
@@ -0,0 +1,86 @@
+package org.pdm.backend.service.Impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.model.Supplier;
+import org.pdm.backend.repository.SupplierRepository;
+import org.pdm.backend.repository.Impl.SupplierSearchRepositoryImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SupplierServiceImplTest {
+
+    private SupplierRepository supplierRepository;
+    private SupplierSearchRepositoryImpl supplierSearchRepository;
+    private SupplierServiceImpl supplierService;
+
+    @BeforeEach
+    void setUp() {
+        supplierRepository = mock(SupplierRepository.class);
+        // the trigram index itself, empty and built, fed suppliers directly
+        supplierSearchRepository = new SupplierSearchRepositoryImpl(null);
+        ReflectionTestUtils.setField(supplierSearchRepository, "similarityThreshold", 0.3f);
+        ReflectionTestUtils.setField(supplierSearchRepository, "built", true);
+        supplierSearchRepository.index(supplier(4L, "Acme"));
+        supplierService = new SupplierServiceImpl(supplierRepository, supplierSearchRepository);
+        when(supplierRepository.findById(4L)).thenReturn(Optional.of(supplier(4L, "Acme")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void failedUpdateLeavesTheIndexAlone() {
+        when(supplierRepository.update(any())).thenThrow(new RuntimeException(new SQLException("Lock wait timeout")));
+
+        assertThrows(RuntimeException.class, () -> supplierService.updateSupplier(4L, supplier(null, "Globex")));
+
+        assertEquals(List.of(4L), supplierSearchRepository.search("acme"));
+        assertEquals(List.of(), supplierSearchRepository.search("globex"));
+    }
+
+    @Test
+    void updateIsIndexedOnlyAfterCommit() {
+        when(supplierRepository.update(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+
+        supplierService.updateSupplier(4L, supplier(null, "Globex"));
+        assertEquals(List.of(4L), supplierSearchRepository.search("acme"));
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertEquals(List.of(), supplierSearchRepository.search("acme"));
+        assertEquals(List.of(4L), supplierSearchRepository.search("globex"));
+    }
+
+    @Test
+    void failedDeleteLeavesTheIndexAlone() {
+        when(supplierRepository.deleteById(4L)).thenThrow(new RuntimeException(new SQLException("Lock wait timeout")));
+
+        assertThrows(RuntimeException.class, () -> supplierService.deleteSupplier(4L));
+
+        assertEquals(List.of(4L), supplierSearchRepository.search("acme"));
+    }
+
+    private static Supplier supplier(Long id, String name) {
+        Supplier supplier = new Supplier();
+        supplier.setId(id);
+        supplier.setName(name);
+        return supplier;
+    }
+}
@@ -0,0 +1,59 @@
+package org.pdm.backend.wrappers;
+
+import org.junit.jupiter.api.Test;
+import org.pdm.backend.enums.TransactionStatus;
+import org.pdm.backend.enums.TransactionType;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TransactionFilterTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+    @Test
+    void textCaseAndBlankTextDoNotChangeTheKey() {
+        assertEquals(TransactionFilter.builder().text("Chair").build().countKey(),
+                TransactionFilter.builder().text("CHAIR").build().countKey());
+        assertEquals(new TransactionFilter().countKey(),
+                TransactionFilter.builder().text("   ").build().countKey());
+    }
+
+    @Test
+    void everyFieldIsPartOfTheKey() {
+        String key = everyField().build().countKey();
+
+        assertNotEquals(key, everyField().text("chairs").build().countKey());
+        assertNotEquals(key, everyField().type(TransactionType.PURCHASE).build().countKey());
+        assertNotEquals(key, everyField().status(TransactionStatus.PENDING).build().countKey());
+        assertNotEquals(key, everyField().productId(2L).build().countKey());
+        assertNotEquals(key, everyField().supplierId(1L).build().countKey());
+        assertNotEquals(key, everyField().userId(1L).build().countKey());
+        assertNotEquals(key, everyField().from(null).build().countKey());
+        assertNotEquals(key, everyField().to(DAY.plusDays(2)).build().countKey());
+        assertEquals(key, everyField().build().countKey());
+    }
+
+    @Test
+    void idsInDifferentFieldsDoNotCollide() {
+        assertNotEquals(TransactionFilter.builder().productId(7L).build().countKey(),
+                TransactionFilter.builder().supplierId(7L).build().countKey());
+    }
+
+    @Test
+    void separatorsInTheTextDoNotCollideWithOtherFields() {
+        // the other fields never contain the separator, so the text cannot pose as one of them
+        assertNotEquals(TransactionFilter.builder().text("a|sale").build().countKey(),
+                TransactionFilter.builder().text("a").type(TransactionType.SALE).build().countKey());
+        assertNotEquals(TransactionFilter.builder().text("a|null").build().countKey(),
+                TransactionFilter.builder().text("a").build().countKey());
+    }
+
+    private static TransactionFilter.TransactionFilterBuilder everyField() {
+        return TransactionFilter.builder()
+                .text("chair").type(TransactionType.SALE).status(TransactionStatus.COMPLETED)
+                .productId(1L).supplierId(2L).userId(3L).from(DAY).to(DAY.plusDays(1));
+    }
+}
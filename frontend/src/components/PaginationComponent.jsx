@@ -1,7 +1,36 @@
 import React from 'react';
 
-function PaginationComponent({ currentPage, totalPages, onPageChange }) {
-  const pageNumbers = Array.from({ length: totalPages }, (_, i) => i + 1);
+const compactFormatter = new Intl.NumberFormat('en', {
+  notation: 'compact',
+  maximumFractionDigits: 1,
+});
+
+// Page numbers around the current page, plus the first and (when known) the last one.
+// An estimated total can fall short of the real one, so the current page always counts.
+const visiblePages = (currentPage, knownPages, estimated) => {
+  const totalPages = Math.max(knownPages, currentPage);
+  if (totalPages <= 7) {
+    return Array.from({ length: totalPages }, (_, i) => i + 1);
+  }
+  const pages = new Set([1, currentPage]);
+  for (let page = currentPage - 2; page <= currentPage + 2; page += 1) {
+    if (page >= 1 && page <= totalPages) pages.add(page);
+  }
+  if (!estimated) pages.add(totalPages);
+  return [...pages].sort((a, b) => a - b);
+};
+
+function PaginationComponent({
+  currentPage,
+  totalPages,
+  onPageChange,
+  totalElements,
+  estimated = false,
+  hasNext,
+}) {
+  const pageNumbers = visiblePages(currentPage, totalPages, estimated);
+  const isLastPage =
+    hasNext !== undefined ? !hasNext : currentPage >= totalPages;
 
   const baseButtonClass =
     'rounded-md border border-slate-200 bg-white px-3 py-2 text-sm font-medium text-[#776B6B] shadow-sm disabled:cursor-not-allowed disabled:opacity-60 hover:bg-slate-50';
@@ -10,6 +39,16 @@ function PaginationComponent({ currentPage, totalPages, onPageChange }) {
 
   return (
     <div className="flex items-center gap-2">
+      {totalElements !== undefined && totalElements !== null && (
+        <span
+          className="mr-2 text-sm text-slate-500"
+          title={estimated ? 'Approximate total' : undefined}
+        >
+          {estimated ? '~' : ''}
+          {compactFormatter.format(totalElements)} results
+        </span>
+      )}
+
       <button
         type="button"
         className={baseButtonClass}
@@ -19,23 +58,27 @@ function PaginationComponent({ currentPage, totalPages, onPageChange }) {
         &laquo; Prev
       </button>
 
-      {pageNumbers.map((number) => (
-        <button
-          key={number}
-          type="button"
-          className={
-            currentPage === number ? activeButtonClass : baseButtonClass
-          }
-          onClick={() => onPageChange(number)}
-        >
-          {number}
-        </button>
+      {pageNumbers.map((number, index) => (
+        <React.Fragment key={number}>
+          {index > 0 && number - pageNumbers[index - 1] > 1 && (
+            <span className="px-1 text-sm text-slate-400">&hellip;</span>
+          )}
+          <button
+            type="button"
+            className={
+              currentPage === number ? activeButtonClass : baseButtonClass
+            }
+            onClick={() => onPageChange(number)}
+          >
+            {number}
+          </button>
+        </React.Fragment>
       ))}
 
       <button
         type="button"
         className={baseButtonClass}
-        disabled={currentPage === totalPages}
+        disabled={isLastPage}
         onClick={() => onPageChange(currentPage + 1)}
       >
         Next &raquo;
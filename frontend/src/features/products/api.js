@@ -14,7 +14,7 @@ export function useProducts({
     queryFn: async () => {
       const endpoint = search ? '/products/search' : '/products/all';
       const params = search
-        ? { input: search }
+        ? { input: search, page: Math.max(0, page - 1), size: limit }
         : { page, limit, categoryId: categoryId || undefined };
 
       const response = await api.get(endpoint, { params });
@@ -24,6 +24,22 @@ export function useProducts({
   });
 }
 
+// Typeahead for the product pickers, ranked by recent sales
+export function useProductSuggestions(prefix, limit = 10) {
+  const trimmed = prefix.trim();
+  return useQuery({
+    queryKey: [...PRODUCTS_QUERY_KEY, 'suggest', { prefix: trimmed, limit }],
+    queryFn: async () => {
+      const response = await api.get('/products/suggest', {
+        params: { prefix: trimmed, limit },
+      });
+      return response.data;
+    },
+    enabled: trimmed.length > 0,
+    keepPreviousData: true,
+  });
+}
+
 export function useProduct(id) {
   return useQuery({
     queryKey: [...PRODUCTS_QUERY_KEY, id],
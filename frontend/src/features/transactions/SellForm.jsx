@@ -1,6 +1,7 @@
 import React from 'react';
 import { useForm } from 'react-hook-form';
 import { zodResolver } from '@hookform/resolvers/zod';
+import { useProductSuggestions } from '../products/api';
 import { sellSchema, sellFormDefaultValues } from './sellSchema';
 
 function SellForm({
@@ -22,6 +23,18 @@ function SellForm({
     defaultValues,
   });
 
+  const [productQuery, setProductQuery] = React.useState('');
+  const { data: suggestionData } = useProductSuggestions(productQuery);
+
+  // while typing, offer the suggested products (best sellers first) instead of the full list
+  const productOptions = React.useMemo(() => {
+    if (!productQuery.trim()) return products;
+    const productsById = new Map(products.map((p) => [p.id, p]));
+    return (suggestionData?.suggestions ?? [])
+      .map((suggestion) => productsById.get(suggestion.id))
+      .filter(Boolean);
+  }, [productQuery, products, suggestionData]);
+
   React.useEffect(() => {
     reset(defaultValues);
   }, [defaultValues, reset]);
@@ -69,6 +82,13 @@ function SellForm({
           >
             Select Product
           </label>
+          <input
+            type="search"
+            value={productQuery}
+            onChange={(e) => setProductQuery(e.target.value)}
+            placeholder="Type a product name or SKU"
+            className="w-full rounded-lg border-transparent bg-slate-100 px-4 py-3 text-sm focus:border-[#3E3998] focus:bg-white focus:ring-2 focus:ring-[#3E3998]/20"
+          />
           <select
             id="productId"
             className="w-full rounded-lg border-transparent bg-slate-100 px-4 py-3 text-sm focus:border-[#3E3998] focus:bg-white focus:ring-2 focus:ring-[#3E3998]/20"
@@ -76,7 +96,7 @@ function SellForm({
             aria-invalid={errors.productId ? 'true' : 'false'}
           >
             <option value={0}>Select a product</option>
-            {products.map((product) => (
+            {productOptions.map((product) => (
               <option key={product.id} value={product.id}>
                 {product.name} (Qty: {product.stockQuantity})
               </option>
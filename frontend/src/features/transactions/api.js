@@ -4,15 +4,18 @@ import api from '../../lib/axios';
 const TRANSACTIONS_QUERY_KEY = ['transactions'];
 const DASHBOARD_QUERY_KEY = ['dashboard-stats'];
 
-export function useTransactions({ page = 1, limit = 10, search = '' } = {}) {
+export function useTransactions({ page = 1, limit = 10, search = '', type } = {}) {
   return useQuery({
-    queryKey: [...TRANSACTIONS_QUERY_KEY, { page, limit, search }],
+    queryKey: [...TRANSACTIONS_QUERY_KEY, { page, limit, search, type }],
     queryFn: async () => {
       const response = await api.get('/transactions/all', {
         params: {
           page: Math.max(0, page - 1),
           size: limit,
           filter: search || undefined,
+          type: type || undefined,
+          // large histories: approximate totals are fine for the pager
+          count: 'ESTIMATED',
         },
       });
       return response.data;
@@ -45,6 +48,19 @@ export function useTransactionsByMonth(month, year) {
   });
 }
 
+export function useDailySummary(month, year) {
+  return useQuery({
+    queryKey: [...DASHBOARD_QUERY_KEY, { month, year }],
+    queryFn: async () => {
+      const response = await api.get('/transactions/daily-summary', {
+        params: { month, year },
+      });
+      return response.data;
+    },
+    enabled: Boolean(month && year),
+  });
+}
+
 export function usePurchaseTransaction() {
   const queryClient = useQueryClient();
   return useMutation({
@@ -9,7 +9,7 @@ import {
   Legend,
   ResponsiveContainer,
 } from 'recharts';
-import { useTransactionsByMonth } from '../features/transactions/api';
+import { useDailySummary } from '../features/transactions/api';
 
 const METRIC_DETAILS = {
   count: {
@@ -36,47 +36,14 @@ const METRIC_DETAILS = {
   },
 };
 
-const transformTransactionData = (transactions, month, year) => {
-  const dailyData = {};
-  const daysInMonth = new Date(year, month, 0).getDate();
-  for (let day = 1; day <= daysInMonth; day++) {
-    dailyData[day] = { day, count: 0, quantity: 0, amount: 0 };
-  }
-
-  if (!transactions || !Array.isArray(transactions)) {
-    return Object.values(dailyData);
-  }
-
-  transactions.forEach((transaction) => {
-    const type = transaction.transactionType || transaction.type;
-
-    // Skip 'RETURN_TO_SUPPLIER'
-    if (type === 'RETURN_TO_SUPPLIER') {
-      return;
-    }
-    const timestamp = transaction.createdAt || transaction.transactionDate;
-    if (!timestamp) return;
-
-    const date = new Date(timestamp);
-    if (date.getMonth() + 1 === month && date.getFullYear() === year) {
-      const day = date.getDate();
-
-      if (dailyData[day]) {
-        const priceValue =
-          type === 'SALE'
-            ? Number(transaction.totalPrice ?? 0)
-            : -Number(transaction.totalPrice ?? 0);
-
-        dailyData[day].count += 1;
-        dailyData[day].quantity +=
-          transaction.totalProducts ?? transaction.quantity ?? 0;
-        dailyData[day].amount += priceValue || 0;
-      }
-    }
-  });
-
-  return Object.values(dailyData);
-};
+// The backend returns one pre-aggregated entry per day of the month.
+const toChartData = (dailySummaries) =>
+  (dailySummaries ?? []).map((summary) => ({
+    day: summary.day,
+    count: Number(summary.count ?? 0),
+    quantity: Number(summary.quantity ?? 0),
+    amount: Number(summary.amount ?? 0),
+  }));
 
 const formatYAxisTick = (value, metric) => {
   if (metric === 'amount') {
@@ -100,16 +67,16 @@ function DashboardPage() {
   const currentMetric = METRIC_DETAILS[selectedMetric];
 
   const {
-    data: transactionResponse,
+    data: summaryResponse,
     isLoading,
     isError,
     error,
-  } = useTransactionsByMonth(selectedMonth, selectedYear);
+  } = useDailySummary(selectedMonth, selectedYear);
 
-  const chartData = useMemo(() => {
-    const transactions = transactionResponse?.transactions ?? [];
-    return transformTransactionData(transactions, selectedMonth, selectedYear);
-  }, [transactionResponse, selectedMonth, selectedYear]);
+  const chartData = useMemo(
+    () => toChartData(summaryResponse?.dailySummaries),
+    [summaryResponse]
+  );
 
   const handleMonthChange = (e) =>
     setSelectedMonth(parseInt(e.target.value, 10));
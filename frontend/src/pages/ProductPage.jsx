@@ -39,7 +39,7 @@ function ProductPage() {
     setSearch(searchInput.trim());
   };
 
-  const totalPages = data?.meta?.totalPages ?? 1;
+  const totalPages = data?.totalPages ?? data?.meta?.totalPages ?? 1;
 
   return (
     <div className="w-full px-10">
@@ -74,6 +74,7 @@ function TransactionsPage() {
     page,
     search,
     limit: 10,
+    type: filterType === 'ALL' ? undefined : filterType,
   });
 
   const handleSearchSubmit = (event) => {
@@ -82,15 +83,20 @@ function TransactionsPage() {
     setSearch(searchInput.trim());
   };
 
-  // Filter logic (Client-side filtering for now)
+  // The type tabs filter on the server, so pages and totals match the tab
+  const handleFilterTypeChange = (type) => {
+    setPage(1);
+    setFilterType(type);
+  };
+
   // Filter out RETURN_TO_SUPPLIER transactions as they're not supported in UI
-  const allTransactions = (data?.transactions ?? []).filter(
-    (tx) => tx.transactionType !== 'RETURN_TO_SUPPLIER'
+  const displayedTransactions = useMemo(
+    () =>
+      (data?.transactions ?? []).filter(
+        (tx) => tx.transactionType !== 'RETURN_TO_SUPPLIER'
+      ),
+    [data]
   );
-  const displayedTransactions = useMemo(() => {
-    if (filterType === 'ALL') return allTransactions;
-    return allTransactions.filter((tx) => tx.transactionType === filterType);
-  }, [allTransactions, filterType]);
 
   const totalPages = data?.totalPages ?? 1;
 
@@ -134,7 +140,7 @@ function TransactionsPage() {
         {/* Filter Tabs */}
         <div className="flex w-fit items-center rounded-full border border-slate-200 bg-slate-100 p-1">
           <button
-            onClick={() => setFilterType('ALL')}
+            onClick={() => handleFilterTypeChange('ALL')}
             className={`rounded-full px-4 py-1.5 text-sm font-medium transition-all ${
               filterType === 'ALL'
                 ? 'bg-white text-slate-900 shadow-sm'
@@ -144,7 +150,7 @@ function TransactionsPage() {
             All Transactions
           </button>
           <button
-            onClick={() => setFilterType('PURCHASE')}
+            onClick={() => handleFilterTypeChange('PURCHASE')}
             className={`rounded-full px-4 py-1.5 text-sm font-medium transition-all ${
               filterType === 'PURCHASE'
                 ? 'bg-white text-slate-900 shadow-sm'
@@ -154,7 +160,7 @@ function TransactionsPage() {
             Purchases
           </button>
           <button
-            onClick={() => setFilterType('SALE')}
+            onClick={() => handleFilterTypeChange('SALE')}
             className={`rounded-full px-4 py-1.5 text-sm font-medium transition-all ${
               filterType === 'SALE'
                 ? 'bg-white text-slate-900 shadow-sm'
@@ -247,6 +253,9 @@ function TransactionsPage() {
             currentPage={page}
             totalPages={totalPages}
             onPageChange={setPage}
+            totalElements={data?.totalElements}
+            estimated={Boolean(data?.totalEstimated)}
+            hasNext={data?.hasNext}
           />
         </div>
       )}
@@ -7,7 +7,8 @@ DROP TABLE IF EXISTS categories;
 CREATE TABLE categories (
   id BIGINT NOT NULL AUTO_INCREMENT,
   name VARCHAR(255) NOT NULL,
-  PRIMARY KEY (id)
+  PRIMARY KEY (id),
+  KEY idx_categories_name (name)
 );
 INSERT INTO categories VALUES
 (1,'Electronics'),
@@ -34,6 +35,7 @@ CREATE TABLE products (
   PRIMARY KEY (id),
   UNIQUE KEY (sku),
   KEY (category_id),
+  FULLTEXT KEY ft_products_name (name),
   FOREIGN KEY (category_id) REFERENCES categories(id) 
     ON DELETE CASCADE  -- Deleting Category deletes Product
     ON UPDATE CASCADE, -- Updating Category ID updates Product
@@ -109,6 +111,12 @@ CREATE TABLE transactions (
   supplier_id BIGINT DEFAULT NULL, 
   user_id BIGINT DEFAULT NULL,
   PRIMARY KEY (id),
+  FULLTEXT KEY ft_transactions_text (description, note),
+  KEY idx_transactions_supplier (supplier_id, status, transaction_type, created_at),
+  KEY idx_transactions_product (product_id, created_at),
+  KEY idx_transactions_user (user_id, created_at),
+  KEY idx_transactions_type_status (transaction_type, status, created_at),
+  KEY idx_transactions_daily_summary (created_at, transaction_type, total_products, total_price, status, product_id),
   FOREIGN KEY (product_id) REFERENCES products(id) 
     ON DELETE SET NULL   -- Product deleted? Keep transaction, set ID to NULL
     ON UPDATE CASCADE,   -- Product ID changed? Update transaction too